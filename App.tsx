@@ -20,8 +20,8 @@ import SettingsModal from './components/SettingsModal';
 import PendingTransactionsModal from './components/PendingTransactionsModal';
 import TransferModal from './components/TransferModal';
 import { performBackupToDrive } from './services/driveService';
-import { transactionService, categoryService, accountService, budgetService, goalService, wealthConfigService, dataService } from './services/api';
-import { Transaction, Category, TransactionType, CategorySubtype, Budget, Account, AccountType, BackupData, FinancialGoal, WealthConfig, GoogleDriveConfig } from './types';
+import { transactionService, categoryService, accountService, budgetService, goalService, wealthConfigService, dataService, notificationService } from './services/api';
+import { Transaction, Category, TransactionType, CategorySubtype, Budget, Account, AccountType, BackupData, FinancialGoal, WealthConfig, GoogleDriveConfig, PendingNotifications } from './types';
 import { LayoutDashboard, Tags, PieChart, Landmark, CreditCard, BarChart3, RotateCcw, Save, TrendingUp, Cloud, Loader2 } from 'lucide-react';
 
 import { useAuth } from './contexts/AuthContext';
@@ -58,6 +58,7 @@ const App: React.FC = () => {
   const [notificationDays, setNotificationDays] = useState(3);
   const [darkMode, setDarkMode] = useState(false);
   const [isPendingModalOpen, setIsPendingModalOpen] = useState(false);
+  const [pendingNotifications, setPendingNotifications] = useState<PendingNotifications | null>(null);
 
   const [driveStatus, setDriveStatus] = useState<string>(''); // For visual feedback
 
@@ -116,37 +117,36 @@ const App: React.FC = () => {
     }
   }, []);
 
+  // Overdue + upcoming pending expenses and open invoices, resolved server-side
+  const refreshPendingNotifications = async () => {
+    const pending = await notificationService.getPending(notificationDays);
+    setPendingNotifications(pending);
+    return pending;
+  };
+
+  // Applying pending expenses changes the list: refetch so the modal never shows them again
+  const refreshPendingAfterApply = () => {
+    refreshPendingNotifications().catch(error => console.error("Failed to refresh notifications", error));
+  };
+
   // Notification Check (Modal)
   useEffect(() => {
-    if (!isLoading && transactions.length > 0) {
-      const checkNotifications = () => {
-        const today = new Date();
-        today.setHours(0, 0, 0, 0);
-        const futureDate = new Date(today);
-        futureDate.setDate(today.getDate() + notificationDays);
-
-        const pending = transactions.filter(t => {
-          if (t.isApplied) return false;
-          // Only consider expenses
-          if (t.type !== TransactionType.EXPENSE) return false;
-
-          const tDate = new Date(t.date);
-          // Fix timezone issue by treating date string as UTC or local noon
-          const tDateLocal = new Date(tDate.getUTCFullYear(), tDate.getUTCMonth(), tDate.getUTCDate());
-
-          // Include overdue (past) and upcoming (within range)
-          return tDateLocal <= futureDate;
-        });
-
-        if (pending.length > 0) {
-          setIsPendingModalOpen(true);
+    if (!isLoading) {
+      const checkNotifications = async () => {
+        try {
+          const pending = await refreshPendingNotifications();
+          if (pending.overdue.length + pending.upcoming.length + pending.invoices.length > 0) {
+            setIsPendingModalOpen(true);
+          }
+        } catch (error) {
+          console.error("Failed to check notifications", error);
         }
       };
 
       // Small delay to ensure UI is ready
       setTimeout(checkNotifications, 1000);
     }
-  }, [isLoading, transactions, notificationDays]); // Run when loading finishes or transactions change
+  }, [isLoading, notificationDays]); // Run when loading finishes or the window changes
 
   const handleSaveNotificationDays = (days: number) => {
     setNotificationDays(days);
@@ -605,9 +605,13 @@ const App: React.FC = () => {
         const handleBulkStatusChange = async () => {
           try {
             const transactionsToUpdate = transactions.filter(t => selectedIds.includes(t.id));
-            const updatedTransactions = transactionsToUpdate.map(t => ({ ...t, isApplied: !t.isApplied }));
+            const toApply = transactionsToUpdate.filter(t => !t.isApplied).map(t => t.id);
+            const toUnapply = transactionsToUpdate.filter(t => t.isApplied).map(t => t.id);
 
-            await transactionService.updateBatch(updatedTransactions);
+            await Promise.all([
+              toApply.length > 0 ? transactionService.updateFields(toApply, { isApplied: true }) : 0,
+              toUnapply.length > 0 ? transactionService.updateFields(toUnapply, { isApplied: false }) : 0
+            ]);
 
             setTransactions(prev => prev.map(t => {
               if (selectedIds.includes(t.id)) {
@@ -616,6 +620,7 @@ const App: React.FC = () => {
               return t;
             }));
             setSelectedIds([]);
+            refreshPendingAfterApply();
           } catch (error) {
             console.error("Failed to bulk update status", error);
             alert("Erro ao atualizar status.");
@@ -828,6 +833,7 @@ const App: React.FC = () => {
           try {
             const updated = await transactionService.update({ ...transaction, isApplied: !transaction.isApplied });
             setTransactions(prev => prev.map(t => t.id === updated.id ? updated : t));
+            refreshPendingAfterApply();
           } catch (error) {
             console.error("Failed to toggle status", error);
             alert("Erro ao alterar status.");
@@ -1059,17 +1065,7 @@ const App: React.FC = () => {
                   <PendingTransactionsModal
                     isOpen={isPendingModalOpen}
                     onClose={() => setIsPendingModalOpen(false)}
-                    transactions={transactions.filter(t => {
-                      if (t.isApplied) return false;
-                      if (t.type !== TransactionType.EXPENSE) return false;
-                      const today = new Date();
-                      today.setHours(0, 0, 0, 0);
-                      const futureDate = new Date(today);
-                      futureDate.setDate(today.getDate() + notificationDays);
-                      const tDate = new Date(t.date);
-                      const tDateLocal = new Date(tDate.getUTCFullYear(), tDate.getUTCMonth(), tDate.getUTCDate());
-                      return tDateLocal <= futureDate;
-                    })}
+                    pending={pendingNotifications}
                     onGoToTransactions={() => setActiveTab('transactions')}
                   />
 
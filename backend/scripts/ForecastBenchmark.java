@@ -0,0 +1,69 @@
+import com.financaspro.util.CashFlowSimulator;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Times the goal forecast's simulation for one user: ACCOUNTS accounts with a
+ * card, HISTORY months of sampled history, MONTHS months ahead and SCENARIOS
+ * scenarios (defaults: 4, 24, 36, 10000). Run after a build:
+ *
+ *   java -cp target/classes scripts/ForecastBenchmark.java
+ *   MONTHS=120 java -cp target/classes scripts/ForecastBenchmark.java
+ */
+public class ForecastBenchmark {
+
+    public static void main(String[] args) {
+        int accounts = env("ACCOUNTS", 4);
+        int history = env("HISTORY", 24);
+        int months = env("MONTHS", 36);
+        int scenarios = env("SCENARIOS", 10000);
+        int runs = env("RUNS", 20);
+
+        Random random = new Random(42);
+        long[] nanos = new long[runs];
+        double checksum = 0;
+        // Two extra runs warm up the JIT and the common pool
+        for (int run = -2; run < runs; run++) {
+            long start = System.nanoTime();
+            CashFlowSimulator simulator = new CashFlowSimulator(accounts, months, history);
+            for (int a = 0; a < accounts; a++) {
+                simulator.setOpening(a, 10000 * (a + 1));
+                for (int j = 0; j < history; j++) {
+                    simulator.addResidual(a, j, random.nextGaussian() * 1500 - 200);
+                }
+                for (int m = 0; m < months; m++) {
+                    simulator.addKnown(a, m, a == 0 ? 5000 : 0);
+                }
+            }
+            simulator.setCardPayer(0);
+            for (int j = 0; j < history; j++) {
+                simulator.addCardSpending(j, 2500 + random.nextGaussian() * 600);
+            }
+            simulator.addCardKnown(0, 1800);
+            simulator.addCardInstallments(1, 400);
+            CashFlowSimulator.Result result = simulator.run(scenarios, run, 10, 25, 50, 75, 90);
+            for (int a = 0; a < accounts; a++) {
+                for (int m = 0; m < months; m++) {
+                    checksum += result.percentile(a, m, 10) + result.percentile(a, m, 50)
+                            + result.percentile(a, m, 90);
+                }
+                checksum += result.probabilityAtLeast(a, months - 1, 50000);
+            }
+            if (run >= 0) {
+                nanos[run] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(nanos);
+        System.out.printf("accounts=%d history=%d months=%d scenarios=%d cpus=%d%n", accounts, history, months,
+                scenarios, Runtime.getRuntime().availableProcessors());
+        System.out.printf("median %.1f ms, p90 %.1f ms, max %.1f ms (checksum %.0f)%n", nanos[runs / 2] / 1e6,
+                nanos[(int) (runs * 0.9)] / 1e6, nanos[runs - 1] / 1e6, checksum);
+    }
+
+    private static int env(String name, int fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : Integer.parseInt(value);
+    }
+}
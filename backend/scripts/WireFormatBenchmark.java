@@ -0,0 +1,126 @@
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.financaspro.config.ColumnarJsonHttpMessageConverter;
+import com.financaspro.model.Transaction;
+import com.financaspro.model.TransactionSplit;
+import com.financaspro.model.TransactionType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size and serialization time of a transaction list in each response format:
+ * plain JSON, columnar JSON and CBOR, raw and gzipped. ROWS synthetic
+ * transactions (default 10000), RUNS timed runs. Run after a build:
+ *
+ *   mvn -q dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *   java -cp target/classes:$(cat target/classpath.txt) scripts/WireFormatBenchmark.java
+ */
+public class WireFormatBenchmark {
+
+    interface Writer {
+        void write(List<Transaction> rows, OutputStream out) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int rows = env("ROWS", 10000);
+        int runs = env("RUNS", 20);
+        List<Transaction> transactions = transactions(rows);
+
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory())
+                .serializationInclusion(JsonInclude.Include.NON_NULL).build();
+        ColumnarJsonHttpMessageConverter columnar = new ColumnarJsonHttpMessageConverter(json);
+
+        System.out.printf("rows=%d runs=%d%n", rows, runs);
+        measure("json", runs, transactions, (list, out) -> json.writeValue(out, list));
+        measure("columnar", runs, transactions, (list, out) -> columnar.write(list, null, message(out)));
+        measure("cbor", runs, transactions, (list, out) -> cbor.writeValue(out, list));
+    }
+
+    private static void measure(String name, int runs, List<Transaction> rows, Writer writer) throws IOException {
+        long[] nanos = new long[runs];
+        byte[] body = null;
+        // Two extra runs warm up the JIT
+        for (int run = -2; run < runs; run++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long start = System.nanoTime();
+            writer.write(rows, out);
+            if (run >= 0) {
+                nanos[run] = System.nanoTime() - start;
+            }
+            body = out.toByteArray();
+        }
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(body);
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-9s %8.2f MB  gzip %6.0f KB  median %5.1f ms%n", name, body.length / 1e6,
+                gzipped.size() / 1e3, nanos[runs / 2] / 1e6);
+    }
+
+    // Mix of what a real history holds: most fields set, optional ones sparse
+    private static List<Transaction> transactions(int count) {
+        Random random = new Random(42);
+        String[] categories = { "Mercado", "Restaurantes", "Transporte", "Moradia", "Salário", "Lazer" };
+        List<Transaction> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Transaction t = new Transaction();
+            t.setId("tx-" + Long.toHexString(random.nextLong()));
+            t.setUserId("google-oauth2|104829384756102938475");
+            t.setDescription("COMPRA CARTAO " + (1000 + random.nextInt(9000)) + " LOJA " + random.nextInt(500));
+            t.setAmount(Math.round(random.nextDouble() * 50000) / 100.0);
+            t.setDate(String.format("%d-%02d-%02d", 2020 + random.nextInt(7), 1 + random.nextInt(12),
+                    1 + random.nextInt(28)));
+            t.setCategory(categories[random.nextInt(categories.length)]);
+            t.setType(random.nextInt(5) == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            t.setIsApplied(random.nextInt(10) != 0);
+            t.setAccountId("acc-" + random.nextInt(4));
+            if (random.nextInt(3) == 0) {
+                t.setInvoiceMonth(String.format("%d-%02d", 2020 + random.nextInt(7), 1 + random.nextInt(12)));
+            }
+            if (random.nextInt(10) == 0) {
+                t.setBatchId("batch-" + random.nextInt(1000));
+                t.setInstallmentNumber(1 + random.nextInt(10));
+                t.setTotalInstallments(10);
+            }
+            if (random.nextInt(20) == 0) {
+                t.setSplit(new ArrayList<>(List.of(new TransactionSplit("Mercado", 10.0, null, null),
+                        new TransactionSplit("Lazer", 5.0, null, null))));
+            }
+            list.add(t);
+        }
+        return list;
+    }
+
+    private static HttpOutputMessage message(OutputStream out) {
+        HttpHeaders headers = new HttpHeaders();
+        return new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return out;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+
+    private static int env(String name, int fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : Integer.parseInt(value);
+    }
+}
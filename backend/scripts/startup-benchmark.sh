@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Time-to-first-request: starts the backend RUNS times and measures from process
+# launch until it answers an HTTP request (any status; 401 counts as serving).
+#
+#   scripts/startup-benchmark.sh                          # target/*.jar as built
+#   scripts/startup-benchmark.sh java -XX:SharedArchiveFile=app.jsa \
+#       -Dspring.aot.enabled=true -cp "app.jar:lib/*" com.financaspro.FinancasProApplication
+#
+# Extra Spring arguments (profile, datasource) go at the end of the command;
+# --server.port is appended by the script.
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18090}
+URL="http://localhost:${PORT}/api/accounts"
+
+if [ $# -eq 0 ]; then
+    set -- java -jar target/backend-0.0.1-SNAPSHOT.jar
+fi
+
+times=()
+for i in $(seq 1 "$RUNS"); do
+    log="${TMPDIR:-/tmp}/startup-benchmark-$i.log"
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" > "$log" 2>&1 &
+    pid=$!
+    until curl -s -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "run $i: process exited before serving, see $log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    ms=$(( (end - start) / 1000000 ))
+    times+=("$ms")
+    echo "run $i: ${ms} ms"
+done
+
+sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+echo "time-to-first-request over $RUNS runs: min ${sorted[0]} ms, median ${sorted[$((RUNS / 2))]} ms"
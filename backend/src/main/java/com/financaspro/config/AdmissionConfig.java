@@ -0,0 +1,25 @@
+package com.financaspro.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AdmissionProperties properties;
+
+    @Autowired
+    private AdmissionControlInterceptor admissionControlInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.isEnabled()) {
+            registry.addInterceptor(admissionControlInterceptor).addPathPatterns("/api/**");
+        }
+    }
+}
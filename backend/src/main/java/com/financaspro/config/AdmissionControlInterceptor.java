@@ -0,0 +1,139 @@
+package com.financaspro.config;
+
+import com.financaspro.util.ConcurrencyLimiter;
+import com.financaspro.util.TokenBuckets;
+import com.financaspro.util.UserContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user admission control, checked after authentication and before the
+ * request body is read. Every request takes a token from the user's bucket
+ * for its lane (read, write or its @Bulkhead); bulkhead requests also need a
+ * free slot, checked first so a busy lane costs no tokens. Rejections are
+ * immediate, with Retry-After: 429 when the user is over their own limits,
+ * 503 when a bulkhead is busy with everyone's work.
+ * Rejections also carry X-Admission-Rejected: the handler never ran, so the
+ * client may retry any method, POST included.
+ */
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED = AdmissionControlInterceptor.class.getName() + ".admitted";
+
+    public static final String REJECTED_HEADER = "X-Admission-Rejected";
+
+    @Autowired
+    private AdmissionProperties properties;
+
+    @Autowired
+    private UserContext userContext;
+
+    private Lane read;
+    private Lane write;
+    private final Map<String, Lane> bulkheads = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        read = new Lane(properties.getRead());
+        write = new Lane(properties.getWrite());
+        properties.getBulkheads().forEach((name, limit) -> bulkheads.put(name, new Lane(limit)));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        Optional<String> userId = userContext.findCurrentUserId();
+        if (userId.isEmpty()) {
+            return true;
+        }
+
+        Bulkhead bulkhead = method.getMethodAnnotation(Bulkhead.class);
+        long length = request.getContentLengthLong();
+        boolean small = length > 0 && length < properties.getSmallBodyBytes();
+        Lane lane = bulkhead != null && !small ? bulkheads.getOrDefault(bulkhead.value(), write)
+                : isRead(request) ? read : write;
+
+        if (lane.limiter != null) {
+            ConcurrencyLimiter.Admission admission = lane.limiter.tryEnter(userId.get());
+            if (admission == ConcurrencyLimiter.Admission.USER_LIMIT) {
+                return reject(response, HttpStatus.TOO_MANY_REQUESTS, properties.getBusyRetryAfterSeconds());
+            }
+            if (admission == ConcurrencyLimiter.Admission.FULL) {
+                return reject(response, HttpStatus.SERVICE_UNAVAILABLE, properties.getBusyRetryAfterSeconds());
+            }
+        }
+        long wait = lane.buckets == null ? 0 : lane.buckets.tryAcquire(userId.get(), System.nanoTime());
+        if (wait > 0) {
+            if (lane.limiter != null) {
+                lane.limiter.exit(userId.get());
+            }
+            return reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(wait) + 1);
+        }
+        if (lane.limiter != null) {
+            request.setAttribute(ADMITTED, lane);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(ADMITTED) instanceof Lane lane) {
+            userContext.findCurrentUserId().ifPresent(lane.limiter::exit);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        read.evictFull(now);
+        write.evictFull(now);
+        bulkheads.values().forEach(lane -> lane.evictFull(now));
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    private static boolean reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setHeader(REJECTED_HEADER, "true");
+        return false;
+    }
+
+    private static class Lane {
+        final TokenBuckets buckets;
+        final ConcurrencyLimiter limiter;
+
+        Lane(AdmissionProperties.Limit limit) {
+            buckets = limit.getRatePerSecond() > 0 ? new TokenBuckets(limit.getRatePerSecond(), limit.getBurst())
+                    : null;
+            limiter = limit.getMaxConcurrent() > 0 || limit.getMaxConcurrentPerUser() > 0
+                    ? new ConcurrencyLimiter(limit.getMaxConcurrent(), limit.getMaxConcurrentPerUser())
+                    : null;
+        }
+
+        void evictFull(long now) {
+            if (buckets != null) {
+                buckets.evictFull(now);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.financaspro.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "financaspro.admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+
+    // Per-user limits of endpoints without @Bulkhead (GET/HEAD are reads)
+    private Limit read = new Limit(20, 100, 0, 0);
+    private Limit write = new Limit(10, 50, 0, 0);
+
+    // By @Bulkhead name; an unknown name gets the write limit
+    private Map<String, Limit> bulkheads = new HashMap<>();
+
+    // A @Bulkhead request with a known body smaller than this (a transfer's
+    // two legs through /batch) is just a write
+    private long smallBodyBytes = 16384;
+
+    // Retry-After sent when a bulkhead is full (no token bucket to ask)
+    private long busyRetryAfterSeconds = 5;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        // Token bucket per user: refill rate and size; rate 0 = no bucket
+        private double ratePerSecond;
+        private int burst;
+
+        // Requests running at once in total and per user; 0 = unlimited
+        private int maxConcurrent;
+        private int maxConcurrentPerUser;
+    }
+}
@@ -0,0 +1,21 @@
+package com.financaspro.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a heavy endpoint. Instead of the plain read/write limits it is
+ * admitted through the named bulkhead (financaspro.admission.bulkheads.*),
+ * with its own per-user rate and a cap on how many run at once, so imports
+ * and resets cannot take the connections and threads interactive reads need.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    String value();
+}
@@ -0,0 +1,120 @@
+package com.financaspro.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Writes a list of objects column by column:
+ * {"count":2,"columns":{"id":["a","b"],"amount":[10.0,5.5]}}. Field names
+ * appear once instead of once per row, and columns that are null in every row
+ * are left out. Streams straight to the response through a JsonGenerator.
+ */
+public class ColumnarJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Collection<?>> {
+
+    public static final MediaType COLUMNAR_JSON = MediaType.parseMediaType("application/vnd.financaspro.columnar+json");
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnarJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(COLUMNAR_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    // Only when asked for by name: converter beans come before Jackson, so
+    // matching */* (or application/*+json) would turn every list into columns.
+    // Never listed as producible either; Jackson's application/*+json makes
+    // an explicit Accept acceptable and this converter then writes it.
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return mediaType != null && !mediaType.isWildcardType() && !mediaType.isWildcardSubtype()
+                && COLUMNAR_JSON.isCompatibleWith(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Collection<?> rows, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        try (JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("count", rows.size());
+            generator.writeObjectFieldStart("columns");
+
+            Object first = rows.stream().filter(Objects::nonNull).findFirst().orElse(null);
+            if (first != null) {
+                for (BeanPropertyDefinition property : propertiesOf(first.getClass())) {
+                    writeColumn(generator, property, rows);
+                }
+            }
+
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeColumn(JsonGenerator generator, BeanPropertyDefinition property, Collection<?> rows)
+            throws IOException {
+        AnnotatedMember accessor = property.getAccessor();
+        boolean anyValue = false;
+        for (Object row : rows) {
+            if (row != null && accessor.getValue(row) != null) {
+                anyValue = true;
+                break;
+            }
+        }
+        if (!anyValue) {
+            return;
+        }
+
+        generator.writeArrayFieldStart(property.getName());
+        for (Object row : rows) {
+            generator.writeObject(row == null ? null : accessor.getValue(row));
+        }
+        generator.writeEndArray();
+    }
+
+    private List<BeanPropertyDefinition> propertiesOf(Class<?> rowClass) {
+        BeanDescription description = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(rowClass));
+        List<BeanPropertyDefinition> properties = new ArrayList<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            if (property.couldSerialize() && property.getAccessor() != null) {
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    @Override
+    protected Collection<?> readInternal(Class<? extends Collection<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar JSON is a response-only format", inputMessage);
+    }
+
+    @Override
+    public Collection<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar JSON is a response-only format", inputMessage);
+    }
+}
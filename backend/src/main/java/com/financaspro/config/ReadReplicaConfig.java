@@ -0,0 +1,68 @@
+package com.financaspro.config;
+
+import com.financaspro.util.UserContext;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Only active when financaspro.datasource.replica.url is set; otherwise the
+ * auto-configured single data source is used as before.
+ */
+@Configuration
+@ConditionalOnExpression("!'${financaspro.datasource.replica.url:}'.isBlank()")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReplicaProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setReadOnly(true);
+        // Fail over quickly, and let the application start while the replica is down
+        dataSource.setConnectionTimeout(properties.getConnectionTimeoutMs());
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+            HikariDataSource replicaDataSource, ReplicaProperties properties, UserContext userContext) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, properties,
+                userContext::findCurrentUserId);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Hibernate would otherwise keep the first connection for the whole
+    // request (open-in-view), pinning every later transaction to its route
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+}
@@ -0,0 +1,138 @@
+package com.financaspro.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the
+ * primary. A user who wrote within the sticky window keeps reading from the
+ * primary, and a lagging or unreachable replica is skipped until it recovers.
+ * Must sit behind a LazyConnectionDataSourceProxy so the read-only flag is
+ * already set when the connection is fetched.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaProperties properties;
+    private final Supplier<Optional<String>> currentUser;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile boolean replicaUsable;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaProperties properties,
+            Supplier<Optional<String>> currentUser) {
+        this.primary = primary;
+        this.replica = replica;
+        this.properties = properties;
+        this.currentUser = currentUser;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                currentUser.get().ifPresent(this::recordWrite);
+            }
+            return Route.PRIMARY;
+        }
+        if (!replicaUsable) {
+            return Route.PRIMARY;
+        }
+        Optional<String> userId = currentUser.get();
+        if (userId.isPresent() && isSticky(userId.get())) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != replica) {
+            return target.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markReplicaUnusable("unreachable: " + e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Probes the replica (and its lag, when a lag query is configured) and
+     * forgets writes older than the sticky window.
+     */
+    @Scheduled(fixedDelayString = "${financaspro.datasource.replica.check-interval-ms:5000}")
+    public void checkReplica() {
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(replica);
+            String lagQuery = properties.getLagQuery();
+            Double lag = lagQuery == null || lagQuery.isBlank()
+                    ? jdbc.queryForObject("SELECT 0", Double.class)
+                    : jdbc.queryForObject(lagQuery, Double.class);
+            if (lag != null && lag > properties.getMaxLagSeconds()) {
+                markReplicaUnusable("lagging " + lag + "s behind");
+            } else if (!replicaUsable) {
+                replicaUsable = true;
+                log.info("Read replica available, routing read-only transactions to it");
+            }
+        } catch (Exception e) {
+            markReplicaUnusable("unreachable: " + e.getMessage());
+        }
+
+        long cutoff = System.currentTimeMillis() - properties.getStickyWindowMs();
+        lastWrites.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    private void recordWrite(String userId) {
+        lastWrites.put(userId, System.currentTimeMillis());
+        // The window counts from the commit, not from the first statement
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lastWrites.put(userId, System.currentTimeMillis());
+                }
+            });
+        }
+    }
+
+    private boolean isSticky(String userId) {
+        Long writtenAt = lastWrites.get(userId);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < properties.getStickyWindowMs();
+    }
+
+    private void markReplicaUnusable(String reason) {
+        if (replicaUsable) {
+            replicaUsable = false;
+            log.warn("Read replica {}, routing reads to the primary", reason);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.financaspro.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "financaspro.datasource.replica")
+public class ReplicaProperties {
+    private String url;
+    private String username;
+    private String password;
+
+    // Must return the replay delay in seconds; blank only checks connectivity
+    private String lagQuery;
+    private double maxLagSeconds = 5;
+
+    // Reads of a user who just wrote stay on the primary for this long
+    private long stickyWindowMs = 5000;
+    private long connectionTimeoutMs = 2000;
+}
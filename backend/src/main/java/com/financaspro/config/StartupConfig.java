@@ -0,0 +1,23 @@
+package com.financaspro.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+public class StartupConfig {
+
+    // With spring.main.lazy-initialization a bean that is never injected would
+    // never be created, and its @Scheduled jobs (index flush, recurring
+    // roll-forward, replica probe, year archive) would silently not run
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansStayEager() {
+        return (beanName, beanDefinition, beanType) -> !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Scheduled>) method -> AnnotatedElementUtils
+                        .findMergedAnnotation(method, Scheduled.class))
+                .isEmpty();
+    }
+}
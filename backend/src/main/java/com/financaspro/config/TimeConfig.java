@@ -0,0 +1,18 @@
+package com.financaspro.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+@Configuration
+public class TimeConfig {
+
+    // "Today" for due dates and pending items is the user's calendar day, not the server's
+    @Bean
+    public Clock clock(@Value("${financaspro.zone-id:America/Sao_Paulo}") String zoneId) {
+        return Clock.system(ZoneId.of(zoneId));
+    }
+}
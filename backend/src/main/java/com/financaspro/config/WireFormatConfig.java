@@ -0,0 +1,31 @@
+package com.financaspro.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Extra response formats, only used when the Accept header names them; plain
+ * JSON is unchanged. Both reuse the application's Jackson settings (same
+ * property names) and leave nulls out.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public ColumnarJsonHttpMessageConverter columnarJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new ColumnarJsonHttpMessageConverter(objectMapper);
+    }
+
+    // application/cbor
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.createXmlMapper(false).factory(new CBORFactory())
+                .serializationInclusion(JsonInclude.Include.NON_NULL).build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+}
@@ -2,9 +2,12 @@ package com.financaspro.controller;
 
 import com.financaspro.model.Account;
 import com.financaspro.service.AccountService;
+import com.financaspro.util.EntityVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -31,11 +34,12 @@ public class AccountController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Account> updateAccount(@PathVariable String id, @RequestBody Account account) {
+    public ResponseEntity<Account> updateAccount(@PathVariable String id, @RequestBody Account account,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         return accountService.findById(id)
                 .map(existing -> {
                     account.setId(id);
-                    return ResponseEntity.ok(accountService.save(account));
+                    return ResponseEntity.ok(accountService.save(account, EntityVersions.fromIfMatch(ifMatch)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -45,4 +49,16 @@ public class AccountController {
         accountService.deleteById(id);
         return ResponseEntity.ok().build();
     }
+
+    // A newer version was saved since the client's If-Match
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleConflict(WebRequest request) {
+        return ResponseEntity.status(EntityVersions.failureStatus(request.getHeader("If-Match"))).build();
+    }
+
+    // If-Match is not a version
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Void> handleBadRequest() {
+        return ResponseEntity.badRequest().build();
+    }
 }
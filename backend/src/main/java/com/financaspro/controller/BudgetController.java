@@ -1,8 +1,12 @@
 package com.financaspro.controller;
 
+import com.financaspro.config.Bulkhead;
+import com.financaspro.dto.BudgetGenerationRequest;
 import com.financaspro.model.Budget;
 import com.financaspro.service.BudgetService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,11 +29,18 @@ public class BudgetController {
         return budgetService.save(budget);
     }
 
+    @Bulkhead("bulk")
     @PostMapping("/batch")
     public List<Budget> createBudgets(@RequestBody List<Budget> budgets) {
         return budgetService.saveAll(budgets);
     }
 
+    @Bulkhead("bulk")
+    @PostMapping("/generate")
+    public List<Budget> generateBudgets(@RequestBody BudgetGenerationRequest request) {
+        return budgetService.generate(request);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Budget> updateBudget(@PathVariable String id, @RequestBody Budget budget) {
         return budgetService.findById(id)
@@ -45,4 +56,10 @@ public class BudgetController {
         budgetService.deleteById(id);
         return ResponseEntity.ok().build();
     }
+
+    // The budget id belongs to another month's budget
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Void> handleConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 }
@@ -0,0 +1,30 @@
+package com.financaspro.controller;
+
+import com.financaspro.dto.CashFlowCalendar;
+import com.financaspro.service.CalendarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/api/calendar")
+public class CalendarController {
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @GetMapping
+    public CashFlowCalendar getCalendar(
+            @RequestParam String month,
+            @RequestParam(required = false) String accountId) {
+        return calendarService.getMonth(month, accountId);
+    }
+
+    // month is not a yyyy-MM month
+    @ExceptionHandler(DateTimeParseException.class)
+    public ResponseEntity<Void> handleBadMonth() {
+        return ResponseEntity.badRequest().build();
+    }
+}
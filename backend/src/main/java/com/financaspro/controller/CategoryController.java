@@ -1,5 +1,6 @@
 package com.financaspro.controller;
 
+import com.financaspro.config.Bulkhead;
 import com.financaspro.model.Category;
 import com.financaspro.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +26,7 @@ public class CategoryController {
         return categoryService.save(category);
     }
 
+    @Bulkhead("bulk")
     @PostMapping("/batch")
     public List<Category> createCategories(@RequestBody List<Category> categories) {
         return categoryService.saveAll(categories);
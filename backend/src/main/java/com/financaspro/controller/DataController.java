@@ -1,5 +1,6 @@
 package com.financaspro.controller;
 
+import com.financaspro.config.Bulkhead;
 import com.financaspro.service.DataService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +15,7 @@ public class DataController {
     @Autowired
     private DataService dataService;
 
+    @Bulkhead("bulk")
     @DeleteMapping("/reset")
     public ResponseEntity<Void> resetData() {
         dataService.resetUserData();
@@ -1,7 +1,10 @@
 package com.financaspro.controller;
 
+import com.financaspro.config.Bulkhead;
+import com.financaspro.dto.CashFlowForecast;
 import com.financaspro.model.FinancialGoal;
 import com.financaspro.service.FinancialGoalService;
+import com.financaspro.service.ForecastService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,11 +18,21 @@ public class FinancialGoalController {
     @Autowired
     private FinancialGoalService financialGoalService;
 
+    @Autowired
+    private ForecastService forecastService;
+
     @GetMapping
     public List<FinancialGoal> getAllGoals() {
         return financialGoalService.findAll();
     }
 
+    // Goal probabilities and balance bands of every bank and investment account
+    @Bulkhead("compute")
+    @GetMapping("/forecast")
+    public CashFlowForecast getForecast(@RequestParam(required = false) Integer scenarios) {
+        return forecastService.forecast(scenarios);
+    }
+
     @PostMapping
     public FinancialGoal createGoal(@RequestBody FinancialGoal goal) {
         return financialGoalService.save(goal);
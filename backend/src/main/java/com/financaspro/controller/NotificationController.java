@@ -0,0 +1,19 @@
+package com.financaspro.controller;
+
+import com.financaspro.dto.PendingNotifications;
+import com.financaspro.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @GetMapping("/pending")
+    public PendingNotifications getPending(@RequestParam(defaultValue = "3") int days) {
+        return notificationService.findPending(days);
+    }
+}
@@ -0,0 +1,51 @@
+package com.financaspro.controller;
+
+import com.financaspro.model.RecurringTransaction;
+import com.financaspro.service.RecurringTransactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/recurring")
+public class RecurringTransactionController {
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @GetMapping
+    public List<RecurringTransaction> getAllRecurring() {
+        return recurringTransactionService.findAll();
+    }
+
+    @PostMapping
+    public RecurringTransaction createRecurring(@RequestBody RecurringTransaction recurring) {
+        return recurringTransactionService.save(recurring);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<RecurringTransaction> updateRecurring(@PathVariable String id,
+            @RequestBody RecurringTransaction recurring) {
+        return recurringTransactionService.findById(id)
+                .map(existing -> {
+                    recurring.setId(id);
+                    return ResponseEntity.ok(recurringTransactionService.save(recurring));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecurring(@PathVariable String id) {
+        recurringTransactionService.deleteById(id);
+        return ResponseEntity.ok().build();
+    }
+
+    // The id belongs to another user
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Void> handleNotFound() {
+        return ResponseEntity.notFound().build();
+    }
+}
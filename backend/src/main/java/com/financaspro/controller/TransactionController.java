@@ -1,11 +1,17 @@
 package com.financaspro.controller;
 
+import com.financaspro.config.Bulkhead;
+import com.financaspro.dto.BulkUpdateResult;
+import com.financaspro.dto.DuplicateMatch;
+import com.financaspro.dto.TransactionBulkUpdate;
 import com.financaspro.model.Transaction;
+import com.financaspro.service.NotificationService;
 import com.financaspro.service.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -15,6 +21,9 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private NotificationService notificationService;
+
     @GetMapping
     public List<Transaction> getAllTransactions(
             @RequestParam(required = false) String startDate,
@@ -25,6 +34,19 @@ public class TransactionController {
         return transactionService.findAll();
     }
 
+    // The transaction half of /api/notifications/pending
+    @GetMapping("/pending")
+    public List<Transaction> getPendingTransactions(@RequestParam(defaultValue = "3") int days) {
+        return notificationService.findPendingExpenses(days);
+    }
+
+    @GetMapping("/search")
+    public List<Transaction> searchTransactions(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "50") int limit) {
+        return transactionService.search(q, limit);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Transaction> getTransactionById(@PathVariable String id) {
         return transactionService.findById(id)
@@ -37,16 +59,43 @@ public class TransactionController {
         return transactionService.save(transaction);
     }
 
+    @Bulkhead("bulk")
     @PostMapping("/batch")
     public List<Transaction> createTransactions(@RequestBody List<Transaction> transactions) {
-        return transactionService.saveAll(transactions);
+        return transactionService.createAll(transactions);
+    }
+
+    @Bulkhead("compute")
+    @PostMapping("/categorize")
+    public List<Transaction> categorizeTransactions(@RequestBody List<Transaction> transactions) {
+        return transactionService.suggestCategories(transactions);
     }
 
+    @Bulkhead("compute")
+    @PostMapping("/duplicates/check")
+    public List<DuplicateMatch> checkDuplicates(@RequestBody List<Transaction> candidates) {
+        return transactionService.checkDuplicates(candidates);
+    }
+
+    @Bulkhead("compute")
+    @GetMapping("/duplicates")
+    public List<DuplicateMatch> findDuplicates() {
+        return transactionService.findDuplicates();
+    }
+
+    @Bulkhead("bulk")
     @PutMapping("/batch")
     public List<Transaction> updateTransactions(@RequestBody List<Transaction> transactions) {
         return transactionService.saveAll(transactions);
     }
 
+    // Same fields on many transactions; only the changed fields are sent
+    @Bulkhead("bulk")
+    @PatchMapping("/bulk")
+    public BulkUpdateResult updateTransactionFields(@RequestBody TransactionBulkUpdate update) {
+        return transactionService.updateFields(update);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Transaction> updateTransaction(@PathVariable String id,
             @RequestBody Transaction transaction) {
@@ -64,9 +113,16 @@ public class TransactionController {
         return ResponseEntity.ok().build();
     }
 
+    @Bulkhead("bulk")
     @PostMapping("/batch-delete")
     public ResponseEntity<Void> deleteTransactions(@RequestBody List<String> ids) {
         transactionService.deleteBatch(ids);
         return ResponseEntity.ok().build();
     }
+
+    // startDate or endDate is not a yyyy-MM-dd date
+    @ExceptionHandler(DateTimeParseException.class)
+    public ResponseEntity<Void> handleBadDate() {
+        return ResponseEntity.badRequest().build();
+    }
 }
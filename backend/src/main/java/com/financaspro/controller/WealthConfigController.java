@@ -2,8 +2,12 @@ package com.financaspro.controller;
 
 import com.financaspro.model.WealthConfig;
 import com.financaspro.service.WealthConfigService;
+import com.financaspro.util.EntityVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/wealth-config")
@@ -18,7 +22,20 @@ public class WealthConfigController {
     }
 
     @PostMapping
-    public WealthConfig updateWealthConfig(@RequestBody WealthConfig config) {
-        return wealthConfigService.save(config);
+    public WealthConfig updateWealthConfig(@RequestBody WealthConfig config,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return wealthConfigService.save(config, EntityVersions.fromIfMatch(ifMatch));
+    }
+
+    // A newer version was saved since the client's If-Match
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleConflict(WebRequest request) {
+        return ResponseEntity.status(EntityVersions.failureStatus(request.getHeader("If-Match"))).build();
+    }
+
+    // If-Match is not a version
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Void> handleBadRequest() {
+        return ResponseEntity.badRequest().build();
     }
 }
@@ -0,0 +1,22 @@
+package com.financaspro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountForecast {
+
+    private String accountId;
+
+    private String accountName;
+
+    // Balance with everything dated up to today
+    private double currentBalance;
+
+    private List<BalanceBand> bands;
+}
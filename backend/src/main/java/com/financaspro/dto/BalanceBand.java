@@ -0,0 +1,20 @@
+package com.financaspro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Month-end balance percentiles across the simulated scenarios
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceBand {
+
+    private String month; // YYYY-MM
+
+    private double p10;
+    private double p25;
+    private double p50;
+    private double p75;
+    private double p90;
+}
@@ -0,0 +1,24 @@
+package com.financaspro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetGenerationRequest {
+
+    private Integer year;
+
+    // Expense categories impacting the budget when empty
+    private List<String> categoryIds;
+
+    // History window in months, ending with the current month
+    private Integer lookbackMonths = 12;
+
+    // Only compute the budgets, do not save them
+    private boolean preview;
+}
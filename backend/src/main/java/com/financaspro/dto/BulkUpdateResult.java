@@ -0,0 +1,14 @@
+package com.financaspro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateResult {
+
+    // Rows that matched the ids and belong to the user
+    private int updated;
+}
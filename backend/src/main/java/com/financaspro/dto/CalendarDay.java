@@ -0,0 +1,35 @@
+package com.financaspro.dto;
+
+import com.financaspro.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarDay {
+
+    private String date; // YYYY-MM-DD
+
+    private double income;
+
+    private double expense;
+
+    // Net of TRANSFER_IN / TRANSFER_OUT
+    private double transfers;
+
+    // Open credit card invoices due on this day
+    private double invoiceDue;
+
+    private double startBalance;
+
+    private double endBalance;
+
+    private List<Transaction> transactions = new ArrayList<>();
+
+    private List<InvoiceDue> invoices = new ArrayList<>();
+}
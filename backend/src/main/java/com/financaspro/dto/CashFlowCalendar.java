@@ -0,0 +1,23 @@
+package com.financaspro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CashFlowCalendar {
+
+    private String month; // YYYY-MM
+
+    private String accountId; // null = all bank accounts, credit card purchases excluded
+
+    private double openingBalance;
+
+    private List<CalendarDay> days;
+
+    private Double clearedBalance; // accountId only: applied transactions to date, what the bank statement shows
+}
@@ -0,0 +1,25 @@
+package com.financaspro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CashFlowForecast {
+
+    private String date; // YYYY-MM-DD, forecast start
+
+    private int scenarios;
+
+    // Past months the unscheduled flows were sampled from
+    private int historyMonths;
+
+    // Bank and investment accounts; bands run from the current month
+    private List<AccountForecast> accounts;
+
+    private List<GoalForecast> goals;
+}
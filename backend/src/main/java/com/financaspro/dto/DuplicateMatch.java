@@ -0,0 +1,25 @@
+package com.financaspro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateMatch {
+
+    private String transactionId;
+
+    private String duplicateOfId;
+
+    private double similarity; // 0-1, 1 for same FITID
+
+    private String reason; // FITID or FINGERPRINT
+
+    // Positions in a checked batch, for candidates that have no id yet; the
+    // duplicate's is null when it is an existing transaction (and both on a sweep)
+    private Integer candidateIndex;
+
+    private Integer duplicateOfIndex;
+}
@@ -0,0 +1,26 @@
+package com.financaspro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoalForecast {
+
+    private String goalId;
+
+    private String accountId;
+
+    private Double targetAmount;
+
+    private String targetDate; // YYYY-MM-DD
+
+    // Share of scenarios with the target reached at the end of the target
+    // month; null when the goal's account is not forecast (removed, card)
+    private Double probability;
+
+    // Balance at the end of the target month
+    private BalanceBand balance;
+}
@@ -0,0 +1,23 @@
+package com.financaspro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceDue {
+
+    private String accountId;
+
+    private String accountName;
+
+    private String invoiceMonth; // MM/YYYY
+
+    private String dueDate; // YYYY-MM-DD
+
+    private Double amount;
+
+    private boolean overdue;
+}
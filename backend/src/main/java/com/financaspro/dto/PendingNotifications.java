@@ -0,0 +1,21 @@
+package com.financaspro.dto;
+
+import com.financaspro.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingNotifications {
+
+    private List<Transaction> overdue;
+
+    private List<Transaction> upcoming;
+
+    // Open credit card invoices due in the window (not yet closed into a pending expense)
+    private List<InvoiceDue> invoices;
+}
@@ -0,0 +1,30 @@
+package com.financaspro.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBulkUpdate {
+
+    private List<String> ids;
+
+    // Fields to set on every listed transaction; null leaves a field unchanged
+    @JsonProperty("isApplied")
+    private Boolean isApplied;
+
+    @JsonProperty("ignoreInBudget")
+    private Boolean ignoreInBudget;
+
+    // Category name, as elsewhere in the API
+    private String category;
+
+    private String accountId;
+    private String invoiceMonth;
+    private String observations;
+}
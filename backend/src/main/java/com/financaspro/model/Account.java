@@ -28,4 +28,10 @@ public class Account {
 
     @Column(name = "is_default")
     private Boolean isDefault;
+
+    // Optimistic lock; only checked when the client sends it back in If-Match
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    @com.fasterxml.jackson.annotation.JsonProperty(access = com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
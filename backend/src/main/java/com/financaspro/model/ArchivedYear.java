@@ -0,0 +1,19 @@
+package com.financaspro.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// A closed year whose rollups are built (same for every user)
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedYear {
+
+    @Id
+    private Integer year;
+
+    private String archivedAt; // ISO instant
+}
@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_budget_category_month",
+        columnNames = { "userId", "categoryId", "year", "month" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_category_user_code", columnNames = { "userId", "code" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +19,10 @@ public class Category {
 
     private String name;
 
+    // Compact per-user key referenced by transactions and splits
+    @com.fasterxml.jackson.annotation.JsonProperty(access = com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY)
+    private Integer code;
+
     @Enumerated(EnumType.STRING)
     private TransactionType type;
 
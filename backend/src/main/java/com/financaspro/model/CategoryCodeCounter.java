@@ -0,0 +1,20 @@
+package com.financaspro.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// Last category code handed out to a user; only ever grows, so a deleted
+// category's code is never given to a new one
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryCodeCounter {
+
+    @Id
+    private String userId;
+
+    private Integer lastCode;
+}
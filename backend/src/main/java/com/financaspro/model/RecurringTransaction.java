@@ -0,0 +1,42 @@
+package com.financaspro.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@com.fasterxml.jackson.annotation.JsonIgnoreProperties(ignoreUnknown = true)
+public class RecurringTransaction {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String description;
+    private Double amount;
+
+    private String category;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    private String accountId;
+
+    @Column(length = 1000)
+    private String observations;
+
+    // Monthly on this day (clamped to the month's last day)
+    private Integer dayOfMonth;
+
+    private String startDate; // YYYY-MM-DD
+    private String endDate; // YYYY-MM-DD, null = no end
+
+    // Occurrences up to this date already exist as pending transactions
+    @com.fasterxml.jackson.annotation.JsonProperty(access = com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY)
+    private String materializedUntil; // YYYY-MM-DD
+}
@@ -7,6 +7,10 @@ import lombok.AllArgsConstructor;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_user_pending", columnList = "userId, isApplied, type, date"),
+        @Index(name = "idx_transaction_user_date", columnList = "userId, date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,8 +26,18 @@ public class Transaction {
     private Double amount;
     private String date; // ISO Date string YYYY-MM-DD
 
+    // Category name on the API; stored as categoryCode (see CategoryDictionary)
+    @Transient
     private String category;
 
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    private Integer categoryCode;
+
+    // Name that matched no category when saved (kept as text)
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @Column(name = "category")
+    private String unresolvedCategory;
+
     @Enumerated(EnumType.STRING)
     private TransactionType type;
 
@@ -41,8 +55,10 @@ public class Transaction {
     // OFX Import ID
     private String fitid;
 
-    // Split Categories
+    // Split Categories: list queries fetch them through an entity graph; any
+    // other load initializes them for up to 100 transactions per query
     @ElementCollection
+    @org.hibernate.annotations.BatchSize(size = 100)
     private List<TransactionSplit> split;
 
     // Credit Card Specifics
@@ -55,4 +71,7 @@ public class Transaction {
 
     // Transfer Linking
     private String relatedTransactionId;
+
+    // Occurrence of a RecurringTransaction
+    private String recurrenceId;
 }
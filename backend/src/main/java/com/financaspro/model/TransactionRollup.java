@@ -0,0 +1,35 @@
+package com.financaspro.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// Monthly totals of an archived year; balance and budget sums read these
+// instead of scanning the year's transactions
+@Entity
+@Table(indexes = @Index(name = "idx_transaction_rollup_user_month", columnList = "userId, year, month"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String userId;
+
+    private Integer year;
+    private Integer month; // 1-12
+
+    private String accountId;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    private Integer categoryCode;
+
+    private Double total;
+    private Long transactionCount;
+}
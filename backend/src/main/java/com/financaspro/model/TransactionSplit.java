@@ -1,6 +1,8 @@
 package com.financaspro.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
+import jakarta.persistence.Transient;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -11,6 +13,15 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class TransactionSplit {
 
+    // Same encoding as Transaction.category
+    @Transient
     private String categoryName;
     private Double amount;
+
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    private Integer categoryCode;
+
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @Column(name = "category_name")
+    private String unresolvedCategoryName;
 }
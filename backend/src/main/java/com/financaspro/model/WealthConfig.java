@@ -18,4 +18,10 @@ public class WealthConfig {
     private String userId;
 
     private Double passiveIncomeGoal;
+
+    // Optimistic lock; only checked when the client sends it back in If-Match
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    @com.fasterxml.jackson.annotation.JsonProperty(access = com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
@@ -0,0 +1,9 @@
+package com.financaspro.repository;
+
+import com.financaspro.model.ArchivedYear;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedYearRepository extends JpaRepository<ArchivedYear, Integer> {
+}
@@ -5,8 +5,13 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BudgetRepository extends JpaRepository<Budget, String> {
+public interface BudgetRepository extends JpaRepository<Budget, String>, BudgetRepositoryCustom {
     java.util.List<Budget> findAllByUserId(String userId);
 
     boolean existsByCategoryIdAndUserId(String categoryId, String userId);
+
+    java.util.Optional<Budget> findByUserIdAndCategoryIdAndYearAndMonth(String userId, String categoryId,
+            Integer year, Integer month);
+
+    java.util.List<Budget> findAllByUserIdAndYearIn(String userId, java.util.Collection<Integer> years);
 }
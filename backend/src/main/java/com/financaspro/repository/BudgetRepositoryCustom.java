@@ -0,0 +1,15 @@
+package com.financaspro.repository;
+
+import com.financaspro.model.Budget;
+
+import java.util.List;
+
+public interface BudgetRepositoryCustom {
+
+    /**
+     * Inserts or updates budgets by their natural key (userId, categoryId,
+     * year, month). Existing rows keep their id and only take the new amount;
+     * a new row whose id is already taken fails with a DuplicateKeyException.
+     */
+    int upsertAll(List<Budget> budgets);
+}
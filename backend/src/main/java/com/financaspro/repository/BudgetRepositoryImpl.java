@@ -0,0 +1,102 @@
+package com.financaspro.repository;
+
+import com.financaspro.model.Budget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BudgetRepositoryImpl implements BudgetRepositoryCustom {
+
+    // 6 parameters per row, well below driver limits (PostgreSQL: 65535)
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Boolean postgres;
+
+    @Override
+    @Transactional
+    public int upsertAll(List<Budget> budgets) {
+        // One statement cannot touch the same row twice: the last budget for a key wins
+        Map<List<Object>, Budget> byKey = new LinkedHashMap<>();
+        for (Budget b : budgets) {
+            byKey.put(Arrays.asList(b.getUserId(), b.getCategoryId(), b.getYear(), b.getMonth()), b);
+        }
+        List<Budget> distinct = new ArrayList<>(byKey.values());
+
+        int affected = 0;
+        for (int from = 0; from < distinct.size(); from += ROWS_PER_STATEMENT) {
+            List<Budget> chunk = distinct.subList(from, Math.min(from + ROWS_PER_STATEMENT, distinct.size()));
+            affected += isPostgres()
+                    ? jdbcTemplate.update(insertOnConflictStatement(chunk.size()), parameters(chunk))
+                    : merge(chunk);
+        }
+        return affected;
+    }
+
+    // A concurrent insert of the same key can still fail a MERGE; by the time
+    // it has, that row is there and a second MERGE updates it
+    private int merge(List<Budget> chunk) {
+        try {
+            return jdbcTemplate.update(mergeStatement(chunk.size()), parameters(chunk));
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.update(mergeStatement(chunk.size()), parameters(chunk));
+        }
+    }
+
+    // Unlike MERGE, cannot fail on a key inserted concurrently
+    private static String insertOnConflictStatement(int rows) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO budget (id, user_id, category_id, month, year, amount) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?)");
+        }
+        sql.append(" ON CONFLICT (user_id, category_id, year, month) DO UPDATE SET amount = EXCLUDED.amount");
+        return sql.toString();
+    }
+
+    // Standard SQL MERGE (H2 and other databases): one statement for the whole chunk
+    private static String mergeStatement(int rows) {
+        StringBuilder sql = new StringBuilder("MERGE INTO budget b USING (VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?)");
+        }
+        sql.append(") AS v(id, user_id, category_id, month, year, amount) ")
+                .append("ON b.user_id = v.user_id AND b.category_id = v.category_id ")
+                .append("AND b.year = v.year AND b.month = v.month ")
+                .append("WHEN MATCHED THEN UPDATE SET amount = v.amount ")
+                .append("WHEN NOT MATCHED THEN INSERT (id, user_id, category_id, month, year, amount) ")
+                .append("VALUES (v.id, v.user_id, v.category_id, v.month, v.year, v.amount)");
+        return sql.toString();
+    }
+
+    private static Object[] parameters(List<Budget> budgets) {
+        List<Object> params = new ArrayList<>(budgets.size() * 6);
+        for (Budget b : budgets) {
+            params.add(b.getId());
+            params.add(b.getUserId());
+            params.add(b.getCategoryId());
+            params.add(b.getMonth());
+            params.add(b.getYear());
+            params.add(b.getAmount());
+        }
+        return params.toArray();
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,11 @@
+package com.financaspro.repository;
+
+public interface CategoryRepositoryCustom {
+
+    /**
+     * Reserves count new category codes for the user and returns the first
+     * one. Concurrent callers wait on the user's counter row and get disjoint
+     * ranges; codes are never reused.
+     */
+    int allocateCodes(String userId, int count);
+}
@@ -0,0 +1,41 @@
+package com.financaspro.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Boolean postgres;
+
+    @Override
+    @Transactional
+    public int allocateCodes(String userId, int count) {
+        // The counter starts at the highest code already given out
+        jdbcTemplate.update(isPostgres()
+                ? "INSERT INTO category_code_counter (user_id, last_code) SELECT ?, COALESCE(MAX(code), 0) "
+                        + "FROM category WHERE user_id = ? ON CONFLICT (user_id) DO NOTHING"
+                : "MERGE INTO category_code_counter c USING (SELECT CAST(? AS VARCHAR(255)) AS user_id, "
+                        + "COALESCE(MAX(code), 0) AS last_code FROM category WHERE user_id = ?) v "
+                        + "ON c.user_id = v.user_id "
+                        + "WHEN NOT MATCHED THEN INSERT (user_id, last_code) VALUES (v.user_id, v.last_code)",
+                userId, userId);
+        jdbcTemplate.update("UPDATE category_code_counter SET last_code = last_code + ? WHERE user_id = ?",
+                count, userId);
+        Integer last = jdbcTemplate.queryForObject(
+                "SELECT last_code FROM category_code_counter WHERE user_id = ?", Integer.class, userId);
+        return last - count + 1;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,20 @@
+package com.financaspro.repository;
+
+import com.financaspro.model.RecurringTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RecurringTransactionRepository extends JpaRepository<RecurringTransaction, String> {
+    java.util.List<RecurringTransaction> findAllByUserId(String userId);
+
+    @Query("SELECT r FROM RecurringTransaction r WHERE (r.materializedUntil IS NULL OR r.materializedUntil < :date) "
+            + "AND (r.endDate IS NULL OR r.materializedUntil IS NULL OR r.materializedUntil < r.endDate)")
+    java.util.List<RecurringTransaction> findAllMaterializedBefore(String date);
+
+    @Query("SELECT r FROM RecurringTransaction r WHERE r.userId = :userId "
+            + "AND (r.materializedUntil IS NULL OR r.materializedUntil < :date) "
+            + "AND (r.endDate IS NULL OR r.materializedUntil IS NULL OR r.materializedUntil < r.endDate)")
+    java.util.List<RecurringTransaction> findAllByUserIdMaterializedBefore(String userId, String date);
+}
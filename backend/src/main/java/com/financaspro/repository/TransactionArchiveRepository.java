@@ -0,0 +1,178 @@
+package com.financaspro.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * SQL behind the archive tier. Rollups are portable; the partition statements
+ * only apply to PostgreSQL databases migrated to a year-partitioned
+ * transaction table (V3 migration), and are skipped everywhere else.
+ */
+@Repository
+public class TransactionArchiveRepository {
+
+    private static final String DEFAULT_PARTITION = "transaction_default";
+
+    private static final String JOB_LOCK = "transaction_archive";
+
+    private static final String ROLLUP_LOCK = "transaction_rollup";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Boolean postgres;
+
+    private Boolean partitioned;
+
+    /**
+     * Replaces the monthly rollups of one year, for one user or (userId null)
+     * for everyone, with totals computed from the transactions. On PostgreSQL
+     * concurrent rebuilds of the same rows wait for each other (transaction
+     * advisory locks); otherwise both could insert after the other's delete.
+     */
+    @Transactional
+    public int rebuildRollups(int year, String userId) {
+        if (isPostgres()) {
+            // Everyone's rebuild of a year excludes every user's rebuild of it
+            jdbcTemplate.queryForList(userId == null
+                    ? "SELECT pg_advisory_xact_lock(hashtext('" + ROLLUP_LOCK + "'), ?)"
+                    : "SELECT pg_advisory_xact_lock_shared(hashtext('" + ROLLUP_LOCK + "'), ?)", year);
+            if (userId != null) {
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext('" + ROLLUP_LOCK + ":' || ?), ?)",
+                        userId, year);
+            }
+        }
+        String userFilter = userId == null ? "" : " AND user_id = ?";
+        Object[] deleteArgs = userId == null ? new Object[] { year } : new Object[] { year, userId };
+        jdbcTemplate.update("DELETE FROM transaction_rollup WHERE year = ?" + userFilter, deleteArgs);
+
+        Object[] insertArgs = userId == null
+                ? new Object[] { year, yearStart(year), yearStart(year + 1) }
+                : new Object[] { year, yearStart(year), yearStart(year + 1), userId };
+        return jdbcTemplate.update("INSERT INTO transaction_rollup "
+                + "(user_id, year, month, account_id, type, category_code, total, transaction_count) "
+                + "SELECT user_id, ?, CAST(SUBSTRING(date, 6, 2) AS INTEGER), account_id, type, category_code, "
+                + "SUM(amount), COUNT(*) FROM transaction WHERE date >= ? AND date < ? AND date LIKE '____-__-__'"
+                + userFilter
+                + " GROUP BY user_id, SUBSTRING(date, 6, 2), account_id, type, category_code", insertArgs);
+    }
+
+    // Oldest well-formed date; blank or odd dates would sort first
+    public String findMinDate() {
+        return jdbcTemplate.queryForObject("SELECT MIN(date) FROM transaction WHERE date LIKE '____-__-__'",
+                String.class);
+    }
+
+    public boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = isPostgres() && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('transaction'))",
+                    Boolean.class));
+        }
+        return partitioned;
+    }
+
+    // The nightly archive job
+    public boolean runExclusively(Runnable job) {
+        return runExclusively(JOB_LOCK, job);
+    }
+
+    /**
+     * Runs the job unless another instance is already running the job of
+     * that name. On PostgreSQL a session advisory lock is held, on a
+     * connection set aside for the job's duration. Returns whether the job ran.
+     */
+    public boolean runExclusively(String jobName, Runnable job) {
+        if (!isPostgres()) {
+            job.run();
+            return true;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                ResultSet locked = statement.executeQuery("SELECT pg_try_advisory_lock(hashtext('" + jobName + "'))");
+                if (!locked.next() || !locked.getBoolean(1)) {
+                    return false;
+                }
+                try {
+                    job.run();
+                    return true;
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(hashtext('" + jobName + "'))");
+                }
+            }
+        }));
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+
+    /**
+     * Creates the year's partition if missing. Rows of that year that were
+     * parked in the default partition move into it before it is attached.
+     */
+    @Transactional
+    public boolean ensureYearPartition(int year) {
+        String name = partitionName(year);
+        if (Boolean.FALSE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, name))) {
+            return false;
+        }
+        String from = yearStart(year);
+        String to = yearStart(year + 1);
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE transaction INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.execute("ALTER TABLE " + name + " ADD PRIMARY KEY (id)");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE date >= ? AND date < ? "
+                + "RETURNING *) INSERT INTO " + name + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE transaction ATTACH PARTITION " + name
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        // The delete above dropped the moved ids from transaction_key; the
+        // detached table had no trigger to add them back
+        jdbcTemplate.update("INSERT INTO transaction_key (id, date) SELECT id, date FROM " + name
+                + " ON CONFLICT (id) DO NOTHING");
+        return true;
+    }
+
+    /**
+     * A closed year is read, never updated in bulk: pack its pages full, order
+     * the rows by (user, date) so a user's year is a few contiguous pages, and
+     * optionally move it to cheaper storage.
+     */
+    public void compactYearPartition(int year, String tablespace) {
+        String name = partitionName(year);
+        String index = jdbcTemplate.queryForObject("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_index x ON x.indexrelid = i.inhrelid JOIN pg_class c ON c.oid = x.indexrelid "
+                + "WHERE i.inhparent = to_regclass('idx_transaction_user_date') AND x.indrelid = to_regclass(?)",
+                String.class, name);
+        jdbcTemplate.execute("ALTER TABLE " + name + " SET (fillfactor = 100)");
+        jdbcTemplate.execute("CLUSTER " + name + " USING " + index);
+        if (tablespace != null && !tablespace.isBlank()) {
+            jdbcTemplate.execute("ALTER TABLE " + name + " SET TABLESPACE " + identifier(tablespace));
+        }
+        jdbcTemplate.execute("ANALYZE " + name);
+    }
+
+    private static String partitionName(int year) {
+        return "transaction_y" + year;
+    }
+
+    private static String yearStart(int year) {
+        return String.format("%04d-01-01", year);
+    }
+
+    private static String identifier(String name) {
+        if (!name.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid tablespace name: " + name);
+        }
+        return name;
+    }
+}
@@ -1,14 +1,137 @@
 package com.financaspro.repository;
 
 import com.financaspro.model.Transaction;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, String> {
+public interface TransactionRepository extends JpaRepository<Transaction, String>, TransactionRepositoryCustom {
+    @EntityGraph(attributePaths = "split")
     java.util.List<Transaction> findAllByUserId(String userId);
 
+    @EntityGraph(attributePaths = "split")
     java.util.List<Transaction> findAllByUserIdAndDateBetween(String userId, String startDate, String endDate);
 
-    boolean existsByCategoryAndUserId(String category, String userId);
+    @EntityGraph(attributePaths = "split")
+    java.util.List<Transaction> findAllByUserIdAndIdIn(String userId, java.util.Collection<String> ids);
+
+    boolean existsByCategoryCodeAndUserId(Integer categoryCode, String userId);
+
+    boolean existsBySplitCategoryCodeAndUserId(Integer categoryCode, String userId);
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.categoryCode = :code, t.unresolvedCategory = NULL "
+            + "WHERE t.userId = :userId AND t.unresolvedCategory = :name AND t.type = :type")
+    int adoptUnresolvedCategory(String userId, String name, com.financaspro.model.TransactionType type, Integer code);
+
+    @Modifying
+    @Query(value = "UPDATE transaction_split SET category_code = :code, category_name = NULL "
+            + "WHERE category_name = :name AND transaction_id IN "
+            + "(SELECT id FROM transaction WHERE user_id = :userId AND type = :type)",
+            nativeQuery = true)
+    int adoptUnresolvedSplitCategory(String userId, String name, String type, Integer code);
+
+    // Rows saved before isApplied was always set have it null; they are pending too
+    @EntityGraph(attributePaths = "split")
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId AND (t.isApplied = false OR t.isApplied IS NULL) "
+            + "AND t.type = :type AND t.date <= :date ORDER BY t.date ASC")
+    java.util.List<Transaction> findPendingByUserIdAndTypeUntil(String userId, com.financaspro.model.TransactionType type,
+            String date);
+
+    // Rows: accountId, invoiceMonth, total (expenses minus credits)
+    @Query("SELECT t.accountId, t.invoiceMonth, SUM(CASE WHEN t.type = com.financaspro.model.TransactionType.EXPENSE "
+            + "THEN t.amount ELSE -t.amount END) FROM Transaction t "
+            + "WHERE t.userId = :userId AND t.accountId IN :accountIds AND t.invoiceMonth IN :invoiceMonths "
+            + "GROUP BY t.accountId, t.invoiceMonth")
+    java.util.List<Object[]> sumInvoices(String userId, java.util.Collection<String> accountIds,
+            java.util.Collection<String> invoiceMonths);
+
+    // Same rows as sumInvoices, for every invoiceMonth the cards have
+    @Query("SELECT t.accountId, t.invoiceMonth, SUM(CASE WHEN t.type = com.financaspro.model.TransactionType.EXPENSE "
+            + "THEN t.amount ELSE -t.amount END) FROM Transaction t "
+            + "WHERE t.userId = :userId AND t.accountId IN :accountIds AND t.invoiceMonth IS NOT NULL "
+            + "GROUP BY t.accountId, t.invoiceMonth")
+    java.util.List<Object[]> sumAllInvoices(String userId, java.util.Collection<String> accountIds);
+
+    @Query("SELECT t.description FROM Transaction t WHERE t.userId = :userId AND t.description IN :descriptions")
+    java.util.List<String> findExistingDescriptions(String userId, java.util.Collection<String> descriptions);
+
+    // Balance movement of one account's applied transactions (credits minus debits)
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.type IN (com.financaspro.model.TransactionType.INCOME, "
+            + "com.financaspro.model.TransactionType.TRANSFER_IN) THEN t.amount ELSE -t.amount END), 0) "
+            + "FROM Transaction t WHERE t.userId = :userId AND t.accountId = :accountId AND t.isApplied = true")
+    Double sumAppliedAccountFlow(String userId, String accountId);
+
+    // Projected balance movement of one account in [from, to) (credits minus debits)
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.type IN (com.financaspro.model.TransactionType.INCOME, "
+            + "com.financaspro.model.TransactionType.TRANSFER_IN) THEN t.amount ELSE -t.amount END), 0) "
+            + "FROM Transaction t WHERE t.userId = :userId AND t.accountId = :accountId "
+            + "AND t.date >= :from AND t.date < :to")
+    Double sumAccountFlowBetween(String userId, String accountId, String from, String to);
+
+    // Same as above over every non credit card transaction
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.type IN (com.financaspro.model.TransactionType.INCOME, "
+            + "com.financaspro.model.TransactionType.TRANSFER_IN) THEN t.amount ELSE -t.amount END), 0) "
+            + "FROM Transaction t WHERE t.userId = :userId AND t.date >= :from AND t.date < :to "
+            + "AND (t.accountId IS NULL OR t.accountId NOT IN (SELECT a.id FROM Account a WHERE a.userId = :userId "
+            + "AND a.type = com.financaspro.model.AccountType.CREDIT_CARD))")
+    Double sumCashFlowBetween(String userId, String from, String to);
+
+    // Rows: categoryCode, month (YYYY-MM), total of the expenses a budget counts:
+    // not ignoreInBudget, unsplit transactions only
+    @Query("SELECT t.categoryCode, SUBSTRING(t.date, 1, 7), SUM(t.amount) FROM Transaction t "
+            + "WHERE t.userId = :userId AND t.type = com.financaspro.model.TransactionType.EXPENSE "
+            + "AND t.date BETWEEN :startDate AND :endDate AND t.categoryCode IS NOT NULL "
+            + "AND (t.ignoreInBudget = false OR t.ignoreInBudget IS NULL) AND t.split IS EMPTY "
+            + "GROUP BY t.categoryCode, SUBSTRING(t.date, 1, 7)")
+    java.util.List<Object[]> sumBudgetExpensesByCategoryAndMonth(String userId, String startDate, String endDate);
+
+    // Split transactions count towards each split's category instead
+    @Query("SELECT s.categoryCode, SUBSTRING(t.date, 1, 7), SUM(s.amount) FROM Transaction t JOIN t.split s "
+            + "WHERE t.userId = :userId AND t.type = com.financaspro.model.TransactionType.EXPENSE "
+            + "AND t.date BETWEEN :startDate AND :endDate AND s.categoryCode IS NOT NULL "
+            + "AND (t.ignoreInBudget = false OR t.ignoreInBudget IS NULL) "
+            + "GROUP BY s.categoryCode, SUBSTRING(t.date, 1, 7)")
+    java.util.List<Object[]> sumBudgetSplitsByCategoryAndMonth(String userId, String startDate, String endDate);
+
+    // Rows: accountId, month (YYYY-MM), net flow in [from, to) of what nobody scheduled
+    // (not a recurrence, installment or invoice payment)
+    @Query("SELECT t.accountId, SUBSTRING(t.date, 1, 7), SUM(CASE WHEN t.type IN "
+            + "(com.financaspro.model.TransactionType.INCOME, com.financaspro.model.TransactionType.TRANSFER_IN) "
+            + "THEN t.amount ELSE -t.amount END) FROM Transaction t WHERE t.userId = :userId "
+            + "AND t.date >= :from AND t.date < :to AND t.recurrenceId IS NULL AND t.batchId IS NULL "
+            + "AND (t.description IS NULL OR t.description NOT LIKE 'Fatura %') "
+            + "GROUP BY t.accountId, SUBSTRING(t.date, 1, 7)")
+    java.util.List<Object[]> sumUnscheduledFlowByMonth(String userId, String from, String to);
+
+    // Rows: id, description, observations, unresolved category, category code;
+    // the columns the search index is built from, without loading entities
+    @Query("SELECT t.id, t.description, t.observations, t.unresolvedCategory, t.categoryCode "
+            + "FROM Transaction t WHERE t.userId = :userId")
+    java.util.List<Object[]> findSearchableText(String userId);
+
+    // Rows: accountId, month (YYYY-MM), net flow in (after, until]
+    @Query("SELECT t.accountId, SUBSTRING(t.date, 1, 7), SUM(CASE WHEN t.type IN "
+            + "(com.financaspro.model.TransactionType.INCOME, com.financaspro.model.TransactionType.TRANSFER_IN) "
+            + "THEN t.amount ELSE -t.amount END) FROM Transaction t WHERE t.userId = :userId "
+            + "AND t.date > :after AND t.date <= :until GROUP BY t.accountId, SUBSTRING(t.date, 1, 7)")
+    java.util.List<Object[]> sumFlowByMonth(String userId, String after, String until);
+
+    // Rows: invoiceMonth, installment purchases, other purchases (expenses minus credits)
+    @Query("SELECT t.invoiceMonth, "
+            + "SUM(CASE WHEN t.batchId IS NULL THEN 0.0 WHEN t.type = com.financaspro.model.TransactionType.EXPENSE "
+            + "THEN t.amount ELSE -t.amount END), "
+            + "SUM(CASE WHEN t.batchId IS NOT NULL THEN 0.0 WHEN t.type = com.financaspro.model.TransactionType.EXPENSE "
+            + "THEN t.amount ELSE -t.amount END) FROM Transaction t "
+            + "WHERE t.userId = :userId AND t.accountId IN :accountIds AND t.invoiceMonth IN :invoiceMonths "
+            + "GROUP BY t.invoiceMonth")
+    java.util.List<Object[]> sumCardPurchases(String userId, java.util.Collection<String> accountIds,
+            java.util.Collection<String> invoiceMonths);
+
+    @Query("SELECT t FROM Transaction t WHERE t.recurrenceId = :recurrenceId "
+            + "AND (t.isApplied = false OR t.isApplied IS NULL) AND t.date >= :date")
+    java.util.List<Transaction> findPendingOccurrences(String recurrenceId, String date);
 }
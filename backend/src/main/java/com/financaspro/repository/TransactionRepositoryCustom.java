@@ -0,0 +1,41 @@
+package com.financaspro.repository;
+
+import com.financaspro.model.Transaction;
+import com.financaspro.model.TransactionType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lookups by id that stay within the ids' years on the year-partitioned table:
+ * the dates are read from transaction_key first (a plain lookup by id would
+ * probe the key of every year). Elsewhere they are ordinary queries by id.
+ */
+public interface TransactionRepositoryCustom {
+
+    // Splits included; ids that don't exist are skipped
+    List<Transaction> findAllByIds(Collection<String> ids);
+
+    List<String> findDatesByIdIn(Collection<String> ids);
+
+    /**
+     * Inserts or updates these transactions. The existing ones are loaded in
+     * one query and merged; the rest are inserted without the per-row
+     * existence check of saveAll.
+     */
+    List<Transaction> upsertAll(List<Transaction> transactions);
+
+    // Deletes these (loaded) transactions and their splits
+    void removeAll(Collection<Transaction> transactions);
+
+    /**
+     * Sets the given attributes (entity field name to value) on the user's
+     * transactions among these ids, without loading them. Ids of other users
+     * simply don't match. Returns the number of rows updated.
+     */
+    int updateFields(String userId, Collection<String> ids, Map<String, Object> values);
+
+    // Same, only on those of the ids with the given type
+    int updateFields(String userId, Collection<String> ids, Map<String, Object> values, TransactionType type);
+}
@@ -0,0 +1,194 @@
+package com.financaspro.repository;
+
+import com.financaspro.model.Transaction;
+import com.financaspro.model.TransactionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    // Fields a bulk update may set; names end up in the statement text
+    private static final Set<String> UPDATABLE_FIELDS = Set.of("isApplied", "ignoreInBudget", "categoryCode",
+            "unresolvedCategory", "accountId", "invoiceMonth", "observations");
+
+    // Keeps the IN list well below driver limits (PostgreSQL: 65535 parameters)
+    private static final int IDS_PER_STATEMENT = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Override
+    public List<Transaction> findAllByIds(Collection<String> ids) {
+        List<Transaction> found = new ArrayList<>();
+        for (List<String> chunk : chunks(ids)) {
+            Map<String, Object> parameters = new HashMap<>();
+            String years = withinYearsOf(chunk, parameters);
+            if (years == null) {
+                continue;
+            }
+            TypedQuery<Transaction> query = entityManager.createQuery(
+                    "SELECT t FROM Transaction t LEFT JOIN FETCH t.split WHERE t.id IN :ids" + years, Transaction.class);
+            query.setParameter("ids", chunk);
+            parameters.forEach(query::setParameter);
+            found.addAll(query.getResultList());
+        }
+        return found;
+    }
+
+    @Override
+    public List<String> findDatesByIdIn(Collection<String> ids) {
+        List<String> dates = new ArrayList<>();
+        for (List<String> chunk : chunks(ids)) {
+            dates.addAll(transactionArchiveRepository.isPartitioned() ? keyDates(chunk)
+                    : entityManager.createQuery("SELECT t.date FROM Transaction t WHERE t.id IN :ids", String.class)
+                            .setParameter("ids", chunk)
+                            .getResultList());
+        }
+        return dates;
+    }
+
+    @Override
+    @Transactional
+    public List<Transaction> upsertAll(List<Transaction> transactions) {
+        Map<String, Transaction> existing = new HashMap<>();
+        findAllByIds(transactions.stream().map(Transaction::getId).filter(Objects::nonNull).toList())
+                .forEach(t -> existing.put(t.getId(), t));
+
+        List<Transaction> saved = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            if (transaction.getId() != null && !existing.containsKey(transaction.getId())) {
+                entityManager.persist(transaction);
+                // A repeated id later in the list updates this one
+                existing.put(transaction.getId(), transaction);
+                saved.add(transaction);
+            } else {
+                saved.add(entityManager.merge(transaction));
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void removeAll(Collection<Transaction> transactions) {
+        List<Transaction> list = new ArrayList<>(transactions);
+        for (int from = 0; from < list.size(); from += IDS_PER_STATEMENT) {
+            List<Transaction> chunk = list.subList(from, Math.min(from + IDS_PER_STATEMENT, list.size()));
+            List<String> ids = chunk.stream().map(Transaction::getId).toList();
+            Map<String, Object> parameters = new HashMap<>();
+            String years = transactionArchiveRepository.isPartitioned()
+                    ? withinYears(chunk.stream().map(Transaction::getDate).toList(), parameters)
+                    : "";
+
+            entityManager.createNativeQuery("DELETE FROM transaction_split WHERE transaction_id IN (:ids)")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+            Query query = entityManager.createQuery("DELETE FROM Transaction t WHERE t.id IN :ids" + years);
+            query.setParameter("ids", ids);
+            parameters.forEach(query::setParameter);
+            query.executeUpdate();
+            chunk.forEach(t -> {
+                if (entityManager.contains(t)) {
+                    entityManager.detach(t);
+                }
+            });
+        }
+    }
+
+    @Override
+    @Transactional
+    public int updateFields(String userId, Collection<String> ids, Map<String, Object> values) {
+        return updateFields(userId, ids, values, null);
+    }
+
+    @Override
+    @Transactional
+    public int updateFields(String userId, Collection<String> ids, Map<String, Object> values, TransactionType type) {
+        if (ids.isEmpty() || values.isEmpty()) {
+            return 0;
+        }
+        StringBuilder jpql = new StringBuilder("UPDATE Transaction t SET ");
+        int i = 0;
+        for (String field : values.keySet()) {
+            if (!UPDATABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Field cannot be bulk updated: " + field);
+            }
+            jpql.append(i == 0 ? "" : ", ").append("t.").append(field).append(" = :v").append(i++);
+        }
+        jpql.append(" WHERE t.userId = :userId AND t.id IN :ids");
+        if (type != null) {
+            jpql.append(" AND t.type = :type");
+        }
+
+        int updated = 0;
+        for (List<String> chunk : chunks(ids)) {
+            Map<String, Object> parameters = new HashMap<>();
+            String years = withinYearsOf(chunk, parameters);
+            if (years == null) {
+                continue;
+            }
+            Query query = entityManager.createQuery(jpql + years);
+            int p = 0;
+            for (Object value : values.values()) {
+                query.setParameter("v" + p++, value);
+            }
+            query.setParameter("userId", userId);
+            query.setParameter("ids", chunk);
+            if (type != null) {
+                query.setParameter("type", type);
+            }
+            parameters.forEach(query::setParameter);
+            updated += query.executeUpdate();
+        }
+        return updated;
+    }
+
+    /**
+     * Condition (on alias t) that keeps a query by these ids within their
+     * years, adding its parameters: "" when the table isn't partitioned,
+     * null when none of the ids exists.
+     */
+    private String withinYearsOf(List<String> ids, Map<String, Object> parameters) {
+        if (!transactionArchiveRepository.isPartitioned()) {
+            return "";
+        }
+        List<String> dates = keyDates(ids);
+        return dates.isEmpty() ? null : withinYears(dates, parameters);
+    }
+
+    // Rows without a date live in the default partition
+    private static String withinYears(List<String> dates, Map<String, Object> parameters) {
+        Set<String> distinct = new HashSet<>(dates);
+        boolean undated = distinct.remove(null);
+        if (distinct.isEmpty()) {
+            return " AND t.date IS NULL";
+        }
+        parameters.put("dates", distinct);
+        return undated ? " AND (t.date IN :dates OR t.date IS NULL)" : " AND t.date IN :dates";
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> keyDates(List<String> ids) {
+        return entityManager.createNativeQuery("SELECT date FROM transaction_key WHERE id IN (:ids)", String.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    private static List<List<String>> chunks(Collection<String> ids) {
+        List<String> list = new ArrayList<>(ids);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += IDS_PER_STATEMENT) {
+            chunks.add(list.subList(from, Math.min(from + IDS_PER_STATEMENT, list.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,32 @@
+package com.financaspro.repository;
+
+import com.financaspro.model.TransactionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+// Rollup counterparts of the TransactionRepository sums, for months before (year, month)
+@Repository
+public interface TransactionRollupRepository extends JpaRepository<TransactionRollup, Long> {
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN r.type IN (com.financaspro.model.TransactionType.INCOME, "
+            + "com.financaspro.model.TransactionType.TRANSFER_IN) THEN r.total ELSE -r.total END), 0) "
+            + "FROM TransactionRollup r WHERE r.userId = :userId AND r.accountId = :accountId "
+            + "AND (r.year < :year OR (r.year = :year AND r.month < :month))")
+    Double sumAccountFlowBefore(String userId, String accountId, int year, int month);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN r.type IN (com.financaspro.model.TransactionType.INCOME, "
+            + "com.financaspro.model.TransactionType.TRANSFER_IN) THEN r.total ELSE -r.total END), 0) "
+            + "FROM TransactionRollup r WHERE r.userId = :userId "
+            + "AND (r.year < :year OR (r.year = :year AND r.month < :month)) AND (r.accountId IS NULL "
+            + "OR r.accountId NOT IN (SELECT a.id FROM Account a WHERE a.userId = :userId "
+            + "AND a.type = com.financaspro.model.AccountType.CREDIT_CARD))")
+    Double sumCashFlowBefore(String userId, int year, int month);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TransactionRollup r WHERE r.userId = :userId")
+    int deleteAllByUserId(String userId);
+}
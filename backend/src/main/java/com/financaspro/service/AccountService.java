@@ -2,12 +2,15 @@ package com.financaspro.service;
 
 import com.financaspro.model.Account;
 import com.financaspro.repository.AccountRepository;
+import com.financaspro.util.EntityVersions;
 import com.financaspro.util.UserContext;
+import com.financaspro.util.UserLockManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class AccountService {
@@ -18,6 +21,13 @@ public class AccountService {
     @Autowired
     private UserContext userContext;
 
+    @Autowired
+    private UserLockManager userLockManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Transactional(readOnly = true)
     public List<Account> findAll() {
         return accountRepository.findAllByUserId(userContext.getCurrentUserId());
     }
@@ -31,11 +41,37 @@ public class AccountService {
     }
 
     public Account save(Account account) {
-        account.setUserId(userContext.getCurrentUserId());
+        return save(account, null);
+    }
+
+    /**
+     * Serialized per user, so two requests can't both keep (or both clear) a
+     * default. Without an expected version, quick successive saves of the same
+     * account coalesce into one write of the newest state.
+     */
+    public Account save(Account account, Long expectedVersion) {
+        String userId = userContext.getCurrentUserId();
+        if (expectedVersion != null || account.getId() == null) {
+            return userLockManager.withLock(userId,
+                    () -> transactionTemplate.execute(status -> doSave(userId, account, expectedVersion)));
+        }
+        return userLockManager.coalesce(userId, "account:" + account.getId(), account,
+                latest -> transactionTemplate.execute(status -> doSave(userId, latest, null)));
+    }
+
+    private Account doSave(String userId, Account account, Long expectedVersion) {
+        account.setUserId(userId);
+
+        if (account.getId() != null) {
+            Optional<Account> existing = accountRepository.findById(account.getId());
+            Long currentVersion = existing.map(Account::getVersion).orElse(null);
+            EntityVersions.check(Account.class, account.getId(), expectedVersion, currentVersion);
+            account.setVersion(currentVersion);
+        }
 
         if (Boolean.TRUE.equals(account.getIsDefault())) {
             Optional<Account> currentDefault = accountRepository.findByUserIdAndTypeAndIsDefaultTrue(
-                    userContext.getCurrentUserId(),
+                    userId,
                     account.getType());
 
             if (currentDefault.isPresent() && !currentDefault.get().getId().equals(account.getId())) {
@@ -50,8 +86,15 @@ public class AccountService {
 
     public List<Account> saveAll(List<Account> accounts) {
         String userId = userContext.getCurrentUserId();
-        accounts.forEach(a -> a.setUserId(userId));
-        return accountRepository.saveAll(accounts);
+        return userLockManager.withLock(userId, () -> transactionTemplate.execute(status -> {
+            accounts.forEach(a -> a.setUserId(userId));
+            // Versions are server-owned: re-imported rows continue from the stored one
+            Map<String, Long> versions = new HashMap<>();
+            accountRepository.findAllById(accounts.stream().map(Account::getId).filter(Objects::nonNull).toList())
+                    .forEach(a -> versions.put(a.getId(), a.getVersion()));
+            accounts.forEach(a -> a.setVersion(a.getId() == null ? null : versions.get(a.getId())));
+            return accountRepository.saveAll(accounts);
+        }));
     }
 
     public void deleteById(String id) {
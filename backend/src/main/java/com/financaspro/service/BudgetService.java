@@ -1,13 +1,24 @@
 package com.financaspro.service;
 
+import com.financaspro.dto.BudgetGenerationRequest;
 import com.financaspro.model.Budget;
+import com.financaspro.model.Category;
+import com.financaspro.model.CategorySubtype;
+import com.financaspro.model.TransactionType;
 import com.financaspro.repository.BudgetRepository;
+import com.financaspro.repository.CategoryRepository;
+import com.financaspro.repository.TransactionRepository;
 import com.financaspro.util.UserContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 @Service
 public class BudgetService {
@@ -15,9 +26,19 @@ public class BudgetService {
     @Autowired
     private BudgetRepository budgetRepository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
     @Autowired
     private UserContext userContext;
 
+    @Autowired
+    private Clock clock;
+
+    @Transactional(readOnly = true)
     public List<Budget> findAll() {
         return budgetRepository.findAllByUserId(userContext.getCurrentUserId());
     }
@@ -30,15 +51,128 @@ public class BudgetService {
         return budget;
     }
 
+    @Transactional
     public Budget save(Budget budget) {
-        budget.setUserId(userContext.getCurrentUserId());
+        String userId = userContext.getCurrentUserId();
+        budget.setUserId(userId);
+        Optional<Budget> source = budget.getId() != null ? budgetRepository.findById(budget.getId()) : Optional.empty();
+        if (source.isPresent() && !source.get().getUserId().equals(userId)) {
+            throw new DuplicateKeyException("Budget id already in use: " + budget.getId());
+        }
+        // Saving a month that already has a budget updates that row; an existing
+        // budget moved onto that month is merged into it, not left behind
+        Optional<Budget> occupant = budgetRepository.findByUserIdAndCategoryIdAndYearAndMonth(userId,
+                budget.getCategoryId(), budget.getYear(), budget.getMonth())
+                .filter(existing -> !existing.getId().equals(budget.getId()));
+        if (occupant.isPresent()) {
+            source.ifPresent(budgetRepository::delete);
+            budget.setId(occupant.get().getId());
+        }
         return budgetRepository.save(budget);
     }
 
+    /**
+     * Upserts on (userId, categoryId, year, month) with set-based statements, so
+     * client-chosen ids can never create a second budget for the same month. An id
+     * already used by a budget for another month is rejected as a conflict.
+     */
     public List<Budget> saveAll(List<Budget> budgets) {
         String userId = userContext.getCurrentUserId();
         budgets.forEach(b -> b.setUserId(userId));
-        return budgetRepository.saveAll(budgets);
+        if (budgets.isEmpty()) {
+            return budgets;
+        }
+        // An id held by another month's (or user's) budget would collide on the
+        // primary key, which the upsert does not resolve
+        Map<String, Budget> byId = new HashMap<>();
+        budgets.forEach(b -> byId.put(b.getId(), b));
+        for (Budget existing : budgetRepository.findAllById(byId.keySet())) {
+            Budget incoming = byId.get(existing.getId());
+            if (!existing.getUserId().equals(userId) || !naturalKey(existing).equals(naturalKey(incoming))) {
+                throw new DuplicateKeyException("Budget id already in use: " + existing.getId());
+            }
+        }
+        budgetRepository.upsertAll(budgets);
+
+        Set<Integer> years = new HashSet<>();
+        Set<String> keys = new HashSet<>();
+        budgets.forEach(b -> {
+            years.add(b.getYear());
+            keys.add(naturalKey(b));
+        });
+        return budgetRepository.findAllByUserIdAndYearIn(userId, years).stream()
+                .filter(b -> keys.contains(naturalKey(b)))
+                .toList();
+    }
+
+    /**
+     * Twelve monthly budgets per category derived from the last complete months of
+     * expenses: fixed categories repeat their latest monthly total, variable
+     * ones use the monthly average over the window.
+     */
+    public List<Budget> generate(BudgetGenerationRequest request) {
+        String userId = userContext.getCurrentUserId();
+        LocalDate today = LocalDate.now(clock);
+        int year = request.getYear() != null ? request.getYear() : today.getYear() + 1;
+        int lookback = request.getLookbackMonths() != null && request.getLookbackMonths() > 0
+                ? request.getLookbackMonths()
+                : 12;
+
+        List<Category> categories = categoryRepository.findAllByUserId(userId).stream()
+                .filter(c -> request.getCategoryIds() == null || request.getCategoryIds().isEmpty()
+                        ? c.getType() == TransactionType.EXPENSE && c.isImpactsBudget()
+                        : request.getCategoryIds().contains(c.getId()))
+                .toList();
+
+        // Complete months only: the current one would pull both strategies down
+        YearMonth last = YearMonth.from(today).minusMonths(1);
+        YearMonth first = last.minusMonths(lookback - 1L);
+        String from = first.atDay(1).toString();
+        String to = last.atEndOfMonth().toString();
+
+        // category code -> month -> total, counted as the budget view does: rows
+        // marked ignoreInBudget left out, split transactions by their splits.
+        // Rollups carry neither, so this reads the transactions of the window.
+        Map<Integer, TreeMap<String, Double>> history = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(transactionRepository.sumBudgetExpensesByCategoryAndMonth(userId, from, to));
+        rows.addAll(transactionRepository.sumBudgetSplitsByCategoryAndMonth(userId, from, to));
+        for (Object[] row : rows) {
+            history.computeIfAbsent((Integer) row[0], k -> new TreeMap<>())
+                    .merge((String) row[1], (Double) row[2], Double::sum);
+        }
+
+        List<Budget> budgets = new ArrayList<>();
+        for (Category category : categories) {
+            TreeMap<String, Double> monthly = history.get(category.getCode());
+            if (monthly == null || monthly.isEmpty()) {
+                continue;
+            }
+
+            double amount;
+            if (category.getSubtype() == CategorySubtype.FIXA) {
+                amount = monthly.lastEntry().getValue();
+            } else {
+                // Average over the months since the category first appeared in the window
+                YearMonth since = YearMonth.parse(monthly.firstKey());
+                long months = since.until(last, ChronoUnit.MONTHS) + 1;
+                amount = monthly.values().stream().mapToDouble(Double::doubleValue).sum() / months;
+            }
+            amount = Math.round(amount * 100) / 100.0;
+            if (amount <= 0) {
+                continue;
+            }
+
+            for (int month = 0; month < 12; month++) {
+                budgets.add(new Budget(category.getId() + "-" + month + "-" + year, userId, category.getId(),
+                        month, year, amount));
+            }
+        }
+
+        return request.isPreview() ? budgets : saveAll(budgets);
+    }
+
+    private static String naturalKey(Budget budget) {
+        return budget.getCategoryId() + "|" + budget.getYear() + "|" + budget.getMonth();
     }
 
     public void deleteById(String id) {
@@ -0,0 +1,143 @@
+package com.financaspro.service;
+
+import com.financaspro.dto.CalendarDay;
+import com.financaspro.dto.CashFlowCalendar;
+import com.financaspro.dto.InvoiceDue;
+import com.financaspro.model.Account;
+import com.financaspro.model.AccountType;
+import com.financaspro.model.Transaction;
+import com.financaspro.repository.AccountRepository;
+import com.financaspro.repository.TransactionRepository;
+import com.financaspro.util.UserContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Daily cash-flow for one month: a single opening-balance aggregate, one
+ * (userId, date) range query for the month and the open invoices due in it.
+ */
+@Service
+public class CalendarService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @Autowired
+    private UserContext userContext;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    public CashFlowCalendar getMonth(String month, String accountId) {
+        YearMonth yearMonth = YearMonth.parse(month);
+        return recurringTransactionService.readMaterializedUntil(yearMonth.atEndOfMonth().toString(),
+                () -> buildMonth(yearMonth, accountId));
+    }
+
+    private CashFlowCalendar buildMonth(YearMonth yearMonth, String accountId) {
+        String userId = userContext.getCurrentUserId();
+        String month = yearMonth.toString();
+        String start = yearMonth.atDay(1).toString();
+        String end = yearMonth.atEndOfMonth().toString();
+
+        List<Account> accounts = accountRepository.findAllByUserId(userId);
+        Set<String> cardIds = new HashSet<>();
+        accounts.stream().filter(a -> a.getType() == AccountType.CREDIT_CARD).forEach(a -> cardIds.add(a.getId()));
+        List<Account> cardsWithDueDay = accounts.stream()
+                .filter(a -> a.getType() == AccountType.CREDIT_CARD && a.getDueDay() != null)
+                .toList();
+
+        double openingBalance;
+        Double clearedBalance = null;
+        List<Account> invoiceCards;
+        if (accountId != null) {
+            Account account = accounts.stream().filter(a -> a.getId().equals(accountId)).findFirst().orElse(null);
+            if (account == null) {
+                return new CashFlowCalendar(month, accountId, 0, List.of(), null);
+            }
+            clearedBalance = round(initialBalance(account)
+                    + transactionRepository.sumAppliedAccountFlow(userId, accountId));
+            openingBalance = initialBalance(account)
+                    + transactionArchiveService.sumAccountFlowBefore(userId, accountId, start);
+            invoiceCards = cardsWithDueDay.stream().filter(c -> c.getId().equals(accountId)).toList();
+        } else {
+            // Invoices left open in earlier months are still owed
+            openingBalance = accounts.stream().mapToDouble(CalendarService::initialBalance).sum()
+                    + transactionArchiveService.sumCashFlowBefore(userId, start)
+                    - invoiceService.findOpenInvoicesBefore(userId, cardsWithDueDay, yearMonth).stream()
+                            .mapToDouble(InvoiceDue::getAmount).sum();
+            invoiceCards = cardsWithDueDay;
+        }
+
+        Map<String, CalendarDay> days = new LinkedHashMap<>();
+        for (LocalDate date = yearMonth.atDay(1); !date.isAfter(yearMonth.atEndOfMonth()); date = date.plusDays(1)) {
+            CalendarDay day = new CalendarDay();
+            day.setDate(date.toString());
+            days.put(day.getDate(), day);
+        }
+
+        List<Transaction> monthTransactions = categoryDictionary.decode(userId,
+                transactionRepository.findAllByUserIdAndDateBetween(userId, start, end));
+        for (Transaction t : monthTransactions) {
+            boolean included = accountId != null ? accountId.equals(t.getAccountId())
+                    : t.getAccountId() == null || !cardIds.contains(t.getAccountId());
+            CalendarDay day = days.get(t.getDate());
+            if (!included || day == null || t.getAmount() == null || t.getType() == null) {
+                continue;
+            }
+            day.getTransactions().add(t);
+            switch (t.getType()) {
+                case INCOME -> day.setIncome(day.getIncome() + t.getAmount());
+                case EXPENSE -> day.setExpense(day.getExpense() + t.getAmount());
+                case TRANSFER_IN -> day.setTransfers(day.getTransfers() + t.getAmount());
+                case TRANSFER_OUT -> day.setTransfers(day.getTransfers() - t.getAmount());
+            }
+        }
+
+        // Invoices due this month belong to this month's invoiceMonth
+        for (InvoiceDue invoice : invoiceService.findOpenInvoices(userId, invoiceCards, yearMonth, yearMonth)) {
+            CalendarDay day = days.get(invoice.getDueDate());
+            day.getInvoices().add(invoice);
+            day.setInvoiceDue(day.getInvoiceDue() + invoice.getAmount());
+        }
+
+        double balance = openingBalance;
+        for (CalendarDay day : days.values()) {
+            day.setStartBalance(round(balance));
+            // Viewing a card on its own, its purchases already are the invoice
+            double invoiceOutflow = accountId == null ? day.getInvoiceDue() : 0;
+            balance += day.getIncome() - day.getExpense() + day.getTransfers() - invoiceOutflow;
+            day.setEndBalance(round(balance));
+        }
+
+        return new CashFlowCalendar(month, accountId, round(openingBalance), new ArrayList<>(days.values()),
+                clearedBalance);
+    }
+
+    // Only bank accounts start with money for cash-flow purposes
+    private static double initialBalance(Account account) {
+        return account.getType() == AccountType.BANK && account.getInitialBalance() != null
+                ? account.getInitialBalance()
+                : 0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
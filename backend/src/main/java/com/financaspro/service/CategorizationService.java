@@ -0,0 +1,165 @@
+package com.financaspro.service;
+
+import com.financaspro.model.Category;
+import com.financaspro.model.Transaction;
+import com.financaspro.model.TransactionType;
+import com.financaspro.repository.CategoryRepository;
+import com.financaspro.repository.TransactionRepository;
+import com.financaspro.util.AhoCorasick;
+import com.financaspro.util.TextNormalizer;
+import com.financaspro.util.UserContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Learns description -> category rules from the user's categorized history and
+ * applies them to uncategorized rows of an import in one pass.
+ */
+@Service
+public class CategorizationService {
+
+    // A keyword becomes a rule when it was seen this often...
+    private static final int MIN_OCCURRENCES = 2;
+    // ...and this share of those rows used the same category
+    private static final double MIN_CONFIDENCE = 0.6;
+    // Whole-description matches outweigh single keywords
+    private static final double PHRASE_WEIGHT = 3.0;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserContext userContext;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    /**
+     * Fills the category of every transaction that has none. Rules are compiled
+     * once per call (one history query, one category query), never per row.
+     */
+    public List<Transaction> categorize(List<Transaction> transactions) {
+        boolean needsCategory = transactions.stream().anyMatch(CategorizationService::isUncategorized);
+        if (!needsCategory) {
+            return transactions;
+        }
+
+        String userId = userContext.getCurrentUserId();
+        Matcher matcher = buildMatcher(userId);
+
+        for (Transaction transaction : transactions) {
+            if (isUncategorized(transaction)) {
+                matcher.predict(transaction).ifPresent(transaction::setCategory);
+            }
+        }
+        return transactions;
+    }
+
+    private Matcher buildMatcher(String userId) {
+        Map<String, TransactionType> categoryTypes = new HashMap<>();
+        for (Category category : categoryRepository.findAllByUserId(userId)) {
+            categoryTypes.put(category.getName(), category.getType());
+        }
+
+        Map<String, Map<String, Integer>> tokenCounts = new HashMap<>();
+        Map<String, Map<String, Integer>> phraseCounts = new HashMap<>();
+
+        for (Transaction transaction : categoryDictionary.decode(userId, transactionRepository.findAllByUserId(userId))) {
+            if (isUncategorized(transaction) || isTransfer(transaction)) {
+                continue;
+            }
+            List<String> tokens = significantTokens(transaction.getDescription());
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            for (String token : new HashSet<>(tokens)) {
+                tokenCounts.computeIfAbsent(token, k -> new HashMap<>())
+                        .merge(transaction.getCategory(), 1, Integer::sum);
+            }
+            phraseCounts.computeIfAbsent(String.join(" ", tokens), k -> new HashMap<>())
+                    .merge(transaction.getCategory(), 1, Integer::sum);
+        }
+
+        Map<String, List<Rule>> keywords = new HashMap<>();
+        addRules(keywords, tokenCounts, 1.0);
+        addRules(keywords, phraseCounts, PHRASE_WEIGHT);
+
+        return new Matcher(new AhoCorasick<>(keywords), categoryTypes);
+    }
+
+    private static void addRules(Map<String, List<Rule>> keywords, Map<String, Map<String, Integer>> counts,
+            double weight) {
+        counts.forEach((keyword, byCategory) -> {
+            int total = byCategory.values().stream().mapToInt(Integer::intValue).sum();
+            if (total < MIN_OCCURRENCES) {
+                return;
+            }
+            Map.Entry<String, Integer> best = Collections.max(byCategory.entrySet(), Map.Entry.comparingByValue());
+            double confidence = (double) best.getValue() / total;
+            if (confidence >= MIN_CONFIDENCE) {
+                // Padded with spaces so matches only land on whole words
+                keywords.computeIfAbsent(" " + keyword + " ", k -> new ArrayList<>())
+                        .add(new Rule(best.getKey(), confidence * weight));
+            }
+        });
+    }
+
+    // Drops numbers and very short tokens (dates, card suffixes, "de", "da"...)
+    private static List<String> significantTokens(String description) {
+        return TextNormalizer.tokenize(description).stream()
+                .filter(t -> t.length() >= 3 && !t.chars().allMatch(Character::isDigit))
+                .toList();
+    }
+
+    private static boolean isUncategorized(Transaction transaction) {
+        return transaction.getCategory() == null || transaction.getCategory().isBlank();
+    }
+
+    private static boolean isTransfer(Transaction transaction) {
+        return transaction.getType() == TransactionType.TRANSFER_IN
+                || transaction.getType() == TransactionType.TRANSFER_OUT;
+    }
+
+    private record Rule(String category, double weight) {
+    }
+
+    private static class Matcher {
+
+        private final AhoCorasick<List<Rule>> automaton;
+        private final Map<String, TransactionType> categoryTypes;
+
+        Matcher(AhoCorasick<List<Rule>> automaton, Map<String, TransactionType> categoryTypes) {
+            this.automaton = automaton;
+            this.categoryTypes = categoryTypes;
+        }
+
+        Optional<String> predict(Transaction transaction) {
+            if (isTransfer(transaction)) {
+                return Optional.empty();
+            }
+            String text = " " + String.join(" ", significantTokens(transaction.getDescription())) + " ";
+            Map<String, Double> scores = new HashMap<>();
+            automaton.forEachMatch(text, rules -> {
+                for (Rule rule : rules) {
+                    if (matchesType(rule.category(), transaction.getType())) {
+                        scores.merge(rule.category(), rule.weight(), Double::sum);
+                    }
+                }
+            });
+            return scores.entrySet().stream()
+                    .filter(e -> e.getValue() >= MIN_CONFIDENCE)
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey);
+        }
+
+        private boolean matchesType(String category, TransactionType type) {
+            TransactionType categoryType = categoryTypes.get(category);
+            return categoryType == null || type == null || categoryType == type;
+        }
+    }
+}
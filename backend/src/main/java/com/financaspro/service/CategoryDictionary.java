@@ -0,0 +1,106 @@
+package com.financaspro.service;
+
+import com.financaspro.model.Category;
+import com.financaspro.model.Transaction;
+import com.financaspro.model.TransactionSplit;
+import com.financaspro.model.TransactionType;
+import com.financaspro.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Transactions and splits store the category's per-user integer code; the API
+ * keeps exchanging names. One category query per call translates a whole list
+ * in either direction, and renaming a category touches only its own row.
+ */
+@Service
+public class CategoryDictionary {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    public Dictionary forUser(String userId) {
+        return new Dictionary(categoryRepository.findAllByUserId(userId));
+    }
+
+    public <T extends Collection<Transaction>> T encode(String userId, T transactions) {
+        if (!transactions.isEmpty()) {
+            Dictionary dictionary = forUser(userId);
+            transactions.forEach(dictionary::encode);
+        }
+        return transactions;
+    }
+
+    public <T extends Collection<Transaction>> T decode(String userId, T transactions) {
+        if (!transactions.isEmpty()) {
+            Dictionary dictionary = forUser(userId);
+            transactions.forEach(dictionary::decode);
+        }
+        return transactions;
+    }
+
+    public Transaction decode(String userId, Transaction transaction) {
+        forUser(userId).decode(transaction);
+        return transaction;
+    }
+
+    public static class Dictionary {
+
+        // A name can exist once per type ("Outros" as income and as expense)
+        private final Map<String, Map<TransactionType, Integer>> codesByName = new HashMap<>();
+        private final Map<Integer, String> namesByCode = new HashMap<>();
+
+        Dictionary(List<Category> categories) {
+            for (Category category : categories) {
+                if (category.getCode() == null) {
+                    continue;
+                }
+                if (category.getType() != null) {
+                    codesByName.computeIfAbsent(category.getName(), k -> new EnumMap<>(TransactionType.class))
+                            .merge(category.getType(), category.getCode(), Math::min);
+                }
+                namesByCode.put(category.getCode(), category.getName());
+            }
+        }
+
+        public Integer codeOf(String name, TransactionType type) {
+            return name == null || type == null ? null : codesOf(name).get(type);
+        }
+
+        // Codes of the categories with this name, by category type
+        public Map<TransactionType, Integer> codesOf(String name) {
+            Map<TransactionType, Integer> codes = name == null ? null : codesByName.get(name);
+            return codes == null ? Map.of() : codes;
+        }
+
+        public String nameOf(Integer code) {
+            return code == null ? null : namesByCode.get(code);
+        }
+
+        void encode(Transaction transaction) {
+            Integer code = codeOf(transaction.getCategory(), transaction.getType());
+            transaction.setCategoryCode(code);
+            transaction.setUnresolvedCategory(code == null ? transaction.getCategory() : null);
+            if (transaction.getSplit() != null) {
+                for (TransactionSplit split : transaction.getSplit()) {
+                    Integer splitCode = codeOf(split.getCategoryName(), transaction.getType());
+                    split.setCategoryCode(splitCode);
+                    split.setUnresolvedCategoryName(splitCode == null ? split.getCategoryName() : null);
+                }
+            }
+        }
+
+        void decode(Transaction transaction) {
+            String name = nameOf(transaction.getCategoryCode());
+            transaction.setCategory(name != null ? name : transaction.getUnresolvedCategory());
+            if (transaction.getSplit() != null) {
+                for (TransactionSplit split : transaction.getSplit()) {
+                    String splitName = nameOf(split.getCategoryCode());
+                    split.setCategoryName(splitName != null ? splitName : split.getUnresolvedCategoryName());
+                }
+            }
+        }
+    }
+}
@@ -5,9 +5,9 @@ import com.financaspro.repository.CategoryRepository;
 import com.financaspro.util.UserContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class CategoryService {
@@ -18,6 +18,7 @@ public class CategoryService {
     @Autowired
     private UserContext userContext;
 
+    @Transactional(readOnly = true)
     public List<Category> findAll() {
         return categoryRepository.findAllByUserId(userContext.getCurrentUserId());
     }
@@ -30,15 +31,62 @@ public class CategoryService {
         return category;
     }
 
+    @Transactional
     public Category save(Category category) {
-        category.setUserId(userContext.getCurrentUserId());
-        return categoryRepository.save(category);
+        return saveAll(List.of(category)).get(0);
     }
 
+    /**
+     * Keeps each category's code across updates and gives new ones codes
+     * never used before (see CategoryCodeCounter). Transactions reference the code, so a rename is a single-row
+     * update; rows saved earlier under the new name as plain text are adopted.
+     */
+    @Transactional
     public List<Category> saveAll(List<Category> categories) {
         String userId = userContext.getCurrentUserId();
-        categories.forEach(c -> c.setUserId(userId));
-        return categoryRepository.saveAll(categories);
+        Map<String, Category> existing = new HashMap<>();
+        categoryRepository.findAllByUserId(userId).forEach(c -> existing.put(c.getId(), c));
+
+        List<Category> uncoded = new ArrayList<>();
+        boolean renamed = false;
+
+        for (Category category : categories) {
+            category.setUserId(userId);
+            Category previous = existing.get(category.getId());
+            if (previous != null && previous.getCode() != null) {
+                category.setCode(previous.getCode());
+                renamed |= !Objects.equals(previous.getName(), category.getName());
+            } else {
+                uncoded.add(category);
+            }
+        }
+        if (!uncoded.isEmpty()) {
+            int nextCode = categoryRepository.allocateCodes(userId, uncoded.size());
+            for (Category category : uncoded) {
+                category.setCode(nextCode++);
+            }
+        }
+
+        List<Category> saved = categoryRepository.saveAll(categories);
+        int adopted = 0;
+        for (Category category : saved) {
+            if (category.getType() == null) {
+                continue;
+            }
+            adopted += transactionRepository.adoptUnresolvedCategory(userId, category.getName(), category.getType(),
+                    category.getCode());
+            transactionRepository.adoptUnresolvedSplitCategory(userId, category.getName(), category.getType().name(),
+                    category.getCode());
+        }
+        if (adopted > 0) {
+            // Rollups of archived years are keyed by category code
+            transactionArchiveService.refreshAllRollups(userId);
+        }
+        if (renamed) {
+            // Category names are search terms; rebuild lazily on next search
+            transactionSearchService.clear(userId);
+        }
+        return saved;
     }
 
     @Autowired
@@ -47,13 +95,20 @@ public class CategoryService {
     @Autowired
     private com.financaspro.repository.BudgetRepository budgetRepository;
 
+    @Autowired
+    private TransactionSearchService transactionSearchService;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
     public void deleteById(String id) {
         Optional<Category> category = findById(id);
         if (category.isPresent()) {
             String userId = userContext.getCurrentUserId();
-            String categoryName = category.get().getName();
+            Integer code = category.get().getCode();
 
-            if (transactionRepository.existsByCategoryAndUserId(categoryName, userId)) {
+            if (code != null && (transactionRepository.existsByCategoryCodeAndUserId(code, userId)
+                    || transactionRepository.existsBySplitCategoryCodeAndUserId(code, userId))) {
                 throw new RuntimeException("Cannot delete category used in transactions");
             }
             if (budgetRepository.existsByCategoryIdAndUserId(id, userId)) {
@@ -29,9 +29,18 @@ public class DataService {
     @Autowired
     private WealthConfigRepository wealthConfigRepository;
 
+    @Autowired
+    private RecurringTransactionRepository recurringTransactionRepository;
+
     @Autowired
     private UserContext userContext;
 
+    @Autowired
+    private TransactionSearchService transactionSearchService;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
     @Transactional
     @SuppressWarnings("null")
     public void resetUserData() {
@@ -46,8 +55,14 @@ public class DataService {
         // EXCEPT for the constraints we just added in CategoryService!
         // So we MUST delete Transactions and Budgets BEFORE Categories.
 
+        List<com.financaspro.model.RecurringTransaction> recurring = recurringTransactionRepository
+                .findAllByUserId(userId);
+        recurringTransactionRepository.deleteAll(recurring);
+
         List<com.financaspro.model.Transaction> transactions = transactionRepository.findAllByUserId(userId);
         transactionRepository.deleteAll(transactions);
+        transactionSearchService.clear(userId);
+        transactionArchiveService.clear(userId);
 
         List<com.financaspro.model.Budget> budgets = budgetRepository.findAllByUserId(userId);
         budgetRepository.deleteAll(budgets);
@@ -0,0 +1,168 @@
+package com.financaspro.service;
+
+import com.financaspro.dto.DuplicateMatch;
+import com.financaspro.model.Transaction;
+import com.financaspro.repository.TransactionRepository;
+import com.financaspro.util.TextNormalizer;
+import com.financaspro.util.UserContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Finds likely duplicates across OFX, CSV and manual entries. Transactions are
+ * hashed into buckets by (account, type, amount in cents); only rows in the
+ * same bucket and inside the date window are compared, which keeps both the
+ * bulk check and the full-history sweep near-linear.
+ */
+@Service
+public class DuplicateDetectionService {
+
+    private static final double MIN_SIMILARITY = 0.5;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserContext userContext;
+
+    @Value("${financaspro.dedup.date-window-days:3}")
+    private int dateWindowDays;
+
+    public List<DuplicateMatch> check(List<Transaction> candidates) {
+        String userId = userContext.getCurrentUserId();
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Entry entry = Entry.of(candidates.get(i), i);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        // Only the slice of history the candidates can collide with
+        LocalDate min = entries.stream().map(Entry::date).min(Comparator.naturalOrder()).get();
+        LocalDate max = entries.stream().map(Entry::date).max(Comparator.naturalOrder()).get();
+        List<Transaction> existing = transactionRepository.findAllByUserIdAndDateBetween(userId,
+                min.minusDays(dateWindowDays).toString(), max.plusDays(dateWindowDays).toString());
+
+        FingerprintIndex index = new FingerprintIndex();
+        existing.stream().map(t -> Entry.of(t, null)).filter(Objects::nonNull).forEach(index::add);
+
+        List<DuplicateMatch> matches = new ArrayList<>();
+        for (Entry candidate : entries) {
+            index.findMatch(candidate).ifPresent(matches::add);
+            // Later candidates are also checked against earlier ones of the same batch
+            index.add(candidate);
+        }
+        return matches;
+    }
+
+    public List<DuplicateMatch> sweep() {
+        String userId = userContext.getCurrentUserId();
+        List<Entry> entries = transactionRepository.findAllByUserId(userId).stream()
+                .map(t -> Entry.of(t, null))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(Entry::date))
+                .toList();
+
+        FingerprintIndex index = new FingerprintIndex();
+        List<DuplicateMatch> matches = new ArrayList<>();
+        for (Entry entry : entries) {
+            index.findMatch(entry).ifPresent(matches::add);
+            index.add(entry);
+        }
+        return matches;
+    }
+
+    private class FingerprintIndex {
+
+        private final Map<String, List<Entry>> buckets = new HashMap<>();
+        private final Map<String, Entry> byFitid = new HashMap<>();
+
+        void add(Entry entry) {
+            buckets.computeIfAbsent(entry.fingerprint(), k -> new ArrayList<>()).add(entry);
+            if (entry.fitidKey() != null) {
+                byFitid.putIfAbsent(entry.fitidKey(), entry);
+            }
+        }
+
+        Optional<DuplicateMatch> findMatch(Entry entry) {
+            if (entry.fitidKey() != null) {
+                Entry sameFitid = byFitid.get(entry.fitidKey());
+                if (sameFitid != null && !sameFitid.isSameAs(entry)) {
+                    return Optional.of(match(entry, sameFitid, 1.0, "FITID"));
+                }
+            }
+
+            Entry best = null;
+            double bestSimilarity = MIN_SIMILARITY;
+            for (Entry other : buckets.getOrDefault(entry.fingerprint(), List.of())) {
+                if (other.isSameAs(entry)
+                        || Math.abs(other.date().toEpochDay() - entry.date().toEpochDay()) > dateWindowDays) {
+                    continue;
+                }
+                double similarity = jaccard(entry.tokens(), other.tokens());
+                if (similarity >= bestSimilarity) {
+                    best = other;
+                    bestSimilarity = similarity;
+                }
+            }
+            return Optional.ofNullable(best)
+                    .map(b -> match(entry, b, jaccard(entry.tokens(), b.tokens()), "FINGERPRINT"));
+        }
+    }
+
+    private static DuplicateMatch match(Entry entry, Entry duplicateOf, double similarity, String reason) {
+        return new DuplicateMatch(entry.id(), duplicateOf.id(), similarity, reason, entry.position(),
+                duplicateOf.position());
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) {
+            return 1.0;
+        }
+        int common = 0;
+        for (String token : a) {
+            if (b.contains(token)) {
+                common++;
+            }
+        }
+        return (double) common / (a.size() + b.size() - common);
+    }
+
+    // position: index in the checked batch, null for stored transactions
+    private record Entry(String id, Integer position, LocalDate date, String fingerprint, String fitidKey,
+            Set<String> tokens) {
+
+        static Entry of(Transaction t, Integer position) {
+            if (t.getDate() == null || t.getAmount() == null) {
+                return null;
+            }
+            LocalDate date;
+            try {
+                date = LocalDate.parse(t.getDate());
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+            long cents = Math.round(Math.abs(t.getAmount()) * 100);
+            String fingerprint = t.getAccountId() + "|" + t.getType() + "|" + cents;
+            String fitidKey = t.getFitid() == null || t.getFitid().isBlank() ? null
+                    : t.getAccountId() + "|" + t.getFitid();
+            return new Entry(t.getId(), position, date, fingerprint, fitidKey,
+                    new HashSet<>(TextNormalizer.tokenize(t.getDescription())));
+        }
+
+        // The same transaction: one entry, or a candidate re-checking its own
+        // stored row. Candidates without an id are only ever themselves
+        boolean isSameAs(Entry other) {
+            return this == other || id != null && id.equals(other.id);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.financaspro.repository.FinancialGoalRepository;
 import com.financaspro.util.UserContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +19,7 @@ public class FinancialGoalService {
     @Autowired
     private UserContext userContext;
 
+    @Transactional(readOnly = true)
     public List<FinancialGoal> findAll() {
         return financialGoalRepository.findAllByUserId(userContext.getCurrentUserId());
     }
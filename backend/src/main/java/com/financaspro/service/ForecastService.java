@@ -0,0 +1,334 @@
+package com.financaspro.service;
+
+import com.financaspro.dto.AccountForecast;
+import com.financaspro.dto.BalanceBand;
+import com.financaspro.dto.CashFlowForecast;
+import com.financaspro.dto.GoalForecast;
+import com.financaspro.dto.InvoiceDue;
+import com.financaspro.model.Account;
+import com.financaspro.model.AccountType;
+import com.financaspro.model.FinancialGoal;
+import com.financaspro.model.RecurringTransaction;
+import com.financaspro.model.TransactionType;
+import com.financaspro.repository.AccountRepository;
+import com.financaspro.repository.FinancialGoalRepository;
+import com.financaspro.repository.RecurringTransactionRepository;
+import com.financaspro.repository.TransactionRepository;
+import com.financaspro.util.CashFlowSimulator;
+import com.financaspro.util.UserContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Month-end balance forecast of every bank and investment account, and the
+ * chance of each goal being met. What is already known (future-dated
+ * transactions, recurrences, installments, open card invoices) is applied as
+ * is; the rest of each month is an unscheduled flow resampled from the last
+ * months of history (see CashFlowSimulator). Card invoices are paid by the
+ * default account.
+ */
+@Service
+public class ForecastService {
+
+    private static final DateTimeFormatter INVOICE_MONTH = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private FinancialGoalRepository financialGoalRepository;
+
+    @Autowired
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private UserContext userContext;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${financaspro.forecast.scenarios:10000}")
+    private int defaultScenarios;
+
+    @Value("${financaspro.forecast.max-scenarios:20000}")
+    private int maxScenarios;
+
+    @Value("${financaspro.forecast.lookback-months:24}")
+    private int lookbackMonths;
+
+    @Value("${financaspro.forecast.min-horizon-months:12}")
+    private int minHorizonMonths;
+
+    @Value("${financaspro.forecast.max-horizon-months:120}")
+    private int maxHorizonMonths;
+
+    // Simulations run here, not on the common pool shared with parallel streams
+    @Value("${financaspro.forecast.threads:2}")
+    private int threads;
+
+    private ExecutorService simulationExecutor;
+
+    @PostConstruct
+    void startExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        simulationExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "forecast-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        simulationExecutor.shutdownNow();
+    }
+
+    public CashFlowForecast forecast(Integer requestedScenarios) {
+        return recurringTransactionService.readMaterializedHorizon(() -> buildForecast(requestedScenarios));
+    }
+
+    private CashFlowForecast buildForecast(Integer requestedScenarios) {
+        String userId = userContext.getCurrentUserId();
+        int scenarios = Math.max(100, Math.min(maxScenarios,
+                requestedScenarios != null ? requestedScenarios : defaultScenarios));
+        LocalDate today = LocalDate.now(clock);
+        YearMonth current = YearMonth.from(today);
+
+        List<Account> allAccounts = accountRepository.findAllByUserId(userId);
+        List<Account> accounts = allAccounts.stream().filter(a -> a.getType() != AccountType.CREDIT_CARD).toList();
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            indexes.put(accounts.get(i).getId(), i);
+        }
+        List<FinancialGoal> goals = financialGoalRepository.findAllByUserId(userId);
+
+        // Up to the furthest goal, within [min, max] horizon
+        YearMonth last = current.plusMonths(minHorizonMonths - 1);
+        for (FinancialGoal goal : goals) {
+            YearMonth target = monthOf(goal.getTargetDate());
+            if (target != null && target.isAfter(last)) {
+                last = target;
+            }
+        }
+        if (last.isAfter(current.plusMonths(maxHorizonMonths - 1))) {
+            last = current.plusMonths(maxHorizonMonths - 1);
+        }
+        int months = (int) ChronoUnit.MONTHS.between(current, last) + 1;
+
+        // History: full months before the current one, from the first with activity
+        YearMonth lookbackStart = current.minusMonths(lookbackMonths);
+        List<Object[]> unscheduled = transactionRepository.sumUnscheduledFlowByMonth(userId,
+                lookbackStart.atDay(1).toString(), current.atDay(1).toString());
+        List<Account> cards = invoiceService.findCards(userId);
+        Account payer = accounts.stream().filter(a -> Boolean.TRUE.equals(a.getIsDefault())).findFirst()
+                .orElse(accounts.stream().filter(a -> a.getType() == AccountType.BANK).findFirst().orElse(null));
+        List<Object[]> purchases = List.of();
+        if (payer != null && !cards.isEmpty()) {
+            List<String> invoiceMonths = new ArrayList<>();
+            for (YearMonth m = lookbackStart; !m.isAfter(last); m = m.plusMonths(1)) {
+                invoiceMonths.add(INVOICE_MONTH.format(m));
+            }
+            purchases = transactionRepository.sumCardPurchases(userId, cards.stream().map(Account::getId).toList(),
+                    invoiceMonths);
+        }
+        YearMonth historyStart = current;
+        for (Object[] row : unscheduled) {
+            YearMonth month = monthOf((String) row[1]);
+            if (month != null && month.isBefore(historyStart) && indexes.containsKey((String) row[0])) {
+                historyStart = month;
+            }
+        }
+        for (Object[] row : purchases) {
+            YearMonth month = YearMonth.parse((String) row[0], INVOICE_MONTH);
+            if (month.isBefore(historyStart)) {
+                historyStart = month;
+            }
+        }
+        int history = (int) ChronoUnit.MONTHS.between(historyStart, current);
+
+        CashFlowSimulator simulator = new CashFlowSimulator(accounts.size(), months, history);
+        simulator.setMonthShare(0, (double) (today.lengthOfMonth() - today.getDayOfMonth()) / today.lengthOfMonth());
+
+        String tomorrow = today.plusDays(1).toString();
+        double[] currentBalances = new double[accounts.size()];
+        for (int a = 0; a < accounts.size(); a++) {
+            Account account = accounts.get(a);
+            currentBalances[a] = initialBalance(account)
+                    + transactionArchiveService.sumAccountFlowBefore(userId, account.getId(), tomorrow);
+            simulator.setOpening(a, currentBalances[a]);
+        }
+
+        for (Object[] row : unscheduled) {
+            Integer a = indexes.get((String) row[0]);
+            YearMonth month = monthOf((String) row[1]);
+            if (a != null && month != null && !month.isBefore(historyStart) && row[2] != null) {
+                simulator.addResidual(a, (int) ChronoUnit.MONTHS.between(historyStart, month), (Double) row[2]);
+            }
+        }
+
+        for (Object[] row : transactionRepository.sumFlowByMonth(userId, today.toString(),
+                last.atEndOfMonth().toString())) {
+            Integer a = indexes.get((String) row[0]);
+            YearMonth month = monthOf((String) row[1]);
+            if (a != null && month != null && row[2] != null) {
+                simulator.addKnown(a, (int) ChronoUnit.MONTHS.between(current, month), (Double) row[2]);
+            }
+        }
+
+        // Occurrences past what is materialized as transactions
+        for (RecurringTransaction recurring : recurringTransactionRepository.findAllByUserId(userId)) {
+            Integer a = indexes.get(recurring.getAccountId());
+            if (a == null || recurring.getStartDate() == null || recurring.getDayOfMonth() == null
+                    || recurring.getAmount() == null || recurring.getType() == null) {
+                continue;
+            }
+            String after = recurring.getMaterializedUntil() != null
+                    && recurring.getMaterializedUntil().compareTo(today.toString()) > 0
+                            ? recurring.getMaterializedUntil()
+                            : today.toString();
+            for (int m = 0; m < months; m++) {
+                YearMonth month = current.plusMonths(m);
+                String date = month.atDay(Math.min(recurring.getDayOfMonth(), month.lengthOfMonth())).toString();
+                if (date.compareTo(after) > 0 && date.compareTo(recurring.getStartDate()) >= 0
+                        && (recurring.getEndDate() == null || date.compareTo(recurring.getEndDate()) <= 0)) {
+                    simulator.addKnown(a, m, signed(recurring.getType(), recurring.getAmount()));
+                }
+            }
+        }
+
+        if (payer != null && !cards.isEmpty()) {
+            int payerIndex = indexes.get(payer.getId());
+            simulator.setCardPayer(payerIndex);
+            Set<YearMonth> open = new HashSet<>();
+            for (InvoiceDue invoice : invoiceService.findOpenInvoices(userId, cards, lookbackStart, last)) {
+                YearMonth due = YearMonth.from(LocalDate.parse(invoice.getDueDate()));
+                if (due.isBefore(current)) {
+                    // Overdue from earlier months: still to be paid
+                    simulator.addKnown(payerIndex, 0, -invoice.getAmount());
+                } else {
+                    simulator.addCardKnown((int) ChronoUnit.MONTHS.between(current, due), invoice.getAmount());
+                    open.add(due);
+                }
+            }
+            for (Object[] row : purchases) {
+                YearMonth month = YearMonth.parse((String) row[0], INVOICE_MONTH);
+                double installments = row[1] != null ? (Double) row[1] : 0;
+                double others = row[2] != null ? (Double) row[2] : 0;
+                if (month.isBefore(current)) {
+                    simulator.addCardSpending((int) ChronoUnit.MONTHS.between(historyStart, month), others);
+                } else {
+                    int m = (int) ChronoUnit.MONTHS.between(current, month);
+                    simulator.addCardInstallments(m, installments);
+                    if (!open.contains(month) && installments + others > 0.009) {
+                        simulator.setCardClosed(m);
+                    }
+                }
+            }
+        }
+
+        for (FinancialGoal goal : goals) {
+            Integer a = indexes.get(goal.getAccountId());
+            YearMonth target = monthOf(goal.getTargetDate());
+            if (a != null && target != null && goal.getTargetAmount() != null) {
+                simulator.addThreshold(a, goalMonth(current, target, months), goal.getTargetAmount());
+            }
+        }
+
+        // Same data, same answer: the seed only depends on the user
+        CashFlowSimulator.Result result = simulator.run(simulationExecutor, scenarios, userId.hashCode(),
+                10, 25, 50, 75, 90);
+
+        List<AccountForecast> accountForecasts = new ArrayList<>();
+        for (int a = 0; a < accounts.size(); a++) {
+            List<BalanceBand> bands = new ArrayList<>(months);
+            for (int m = 0; m < months; m++) {
+                bands.add(band(result, a, m, current.plusMonths(m)));
+            }
+            accountForecasts.add(new AccountForecast(accounts.get(a).getId(), accounts.get(a).getName(),
+                    round(currentBalances[a]), bands));
+        }
+
+        List<GoalForecast> goalForecasts = new ArrayList<>();
+        for (FinancialGoal goal : goals) {
+            Integer a = indexes.get(goal.getAccountId());
+            YearMonth target = monthOf(goal.getTargetDate());
+            if (a == null || target == null || goal.getTargetAmount() == null) {
+                goalForecasts.add(new GoalForecast(goal.getId(), goal.getAccountId(), goal.getTargetAmount(),
+                        goal.getTargetDate(), null, null));
+                continue;
+            }
+            int m = goalMonth(current, target, months);
+            goalForecasts.add(new GoalForecast(goal.getId(), goal.getAccountId(), goal.getTargetAmount(),
+                    goal.getTargetDate(), result.probabilityAtLeast(a, m, goal.getTargetAmount()),
+                    band(result, a, m, target)));
+        }
+
+        return new CashFlowForecast(today.toString(), scenarios, history, accountForecasts, goalForecasts);
+    }
+
+    // Goals past the horizon are read at its last month
+    private static int goalMonth(YearMonth current, YearMonth target, int months) {
+        return (int) Math.max(0, Math.min(months - 1, ChronoUnit.MONTHS.between(current, target)));
+    }
+
+    private static BalanceBand band(CashFlowSimulator.Result result, int account, int month, YearMonth label) {
+        return new BalanceBand(label.toString(),
+                round(result.percentile(account, month, 10)),
+                round(result.percentile(account, month, 25)),
+                round(result.percentile(account, month, 50)),
+                round(result.percentile(account, month, 75)),
+                round(result.percentile(account, month, 90)));
+    }
+
+    private static double signed(TransactionType type, double amount) {
+        return type == TransactionType.INCOME || type == TransactionType.TRANSFER_IN ? amount : -amount;
+    }
+
+    // Only bank accounts start with money for cash-flow purposes
+    private static double initialBalance(Account account) {
+        return account.getType() == AccountType.BANK && account.getInitialBalance() != null
+                ? account.getInitialBalance()
+                : 0;
+    }
+
+    // YYYY-MM or YYYY-MM-DD; null when unparseable
+    private static YearMonth monthOf(String date) {
+        if (date == null || date.length() < 7) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(date.substring(0, 7));
+        } catch (java.time.format.DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,134 @@
+package com.financaspro.service;
+
+import com.financaspro.dto.InvoiceDue;
+import com.financaspro.model.Account;
+import com.financaspro.model.AccountType;
+import com.financaspro.repository.AccountRepository;
+import com.financaspro.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Credit card invoices derived from purchases' invoiceMonth and the card's
+ * dueDay. Closing an invoice creates a "Fatura <card> - MM/YYYY" pending
+ * expense; such invoices are no longer reported as open.
+ */
+@Service
+public class InvoiceService {
+
+    private static final DateTimeFormatter INVOICE_MONTH = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private Clock clock;
+
+    public List<Account> findCards(String userId) {
+        return accountRepository.findAllByUserId(userId).stream()
+                .filter(a -> a.getType() == AccountType.CREDIT_CARD && a.getDueDay() != null)
+                .toList();
+    }
+
+    /**
+     * Open invoices of the given cards for the months from {@code first} to
+     * {@code last}: one grouped sum plus one lookup for closed invoices.
+     */
+    public List<InvoiceDue> findOpenInvoices(String userId, List<Account> cards, YearMonth first, YearMonth last) {
+        if (cards.isEmpty()) {
+            return List.of();
+        }
+
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+            months.add(m);
+        }
+        List<String> invoiceMonths = months.stream().map(INVOICE_MONTH::format).toList();
+
+        Map<String, Double> totals = new HashMap<>();
+        for (Object[] row : transactionRepository.sumInvoices(userId, cards.stream().map(Account::getId).toList(),
+                invoiceMonths)) {
+            totals.put(row[0] + "|" + row[1], (Double) row[2]);
+        }
+        return openInvoices(userId, cards, months, totals);
+    }
+
+    /**
+     * Open invoices of the given cards due in months before {@code month},
+     * i.e. still owed when that month starts.
+     */
+    public List<InvoiceDue> findOpenInvoicesBefore(String userId, List<Account> cards, YearMonth month) {
+        if (cards.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Double> totals = new HashMap<>();
+        SortedSet<YearMonth> months = new TreeSet<>();
+        for (Object[] row : transactionRepository.sumAllInvoices(userId, cards.stream().map(Account::getId).toList())) {
+            YearMonth invoiceMonth = parseInvoiceMonth((String) row[1]);
+            if (invoiceMonth != null && invoiceMonth.isBefore(month)) {
+                totals.put(row[0] + "|" + row[1], (Double) row[2]);
+                months.add(invoiceMonth);
+            }
+        }
+        if (months.isEmpty()) {
+            return List.of();
+        }
+        return openInvoices(userId, cards, new ArrayList<>(months), totals);
+    }
+
+    private List<InvoiceDue> openInvoices(String userId, List<Account> cards, List<YearMonth> months,
+            Map<String, Double> totals) {
+        List<String> invoiceNames = new ArrayList<>();
+        for (Account card : cards) {
+            for (YearMonth month : months) {
+                String invoiceMonth = INVOICE_MONTH.format(month);
+                if (totals.containsKey(card.getId() + "|" + invoiceMonth)) {
+                    invoiceNames.add(invoiceName(card, invoiceMonth));
+                }
+            }
+        }
+        Set<String> closed = invoiceNames.isEmpty() ? Set.of()
+                : new HashSet<>(transactionRepository.findExistingDescriptions(userId, invoiceNames));
+
+        LocalDate today = LocalDate.now(clock);
+        List<InvoiceDue> invoices = new ArrayList<>();
+        for (Account card : cards) {
+            for (YearMonth month : months) {
+                String invoiceMonth = INVOICE_MONTH.format(month);
+                Double total = totals.get(card.getId() + "|" + invoiceMonth);
+                if (total == null || total <= 0.009 || closed.contains(invoiceName(card, invoiceMonth))) {
+                    continue;
+                }
+                LocalDate dueDate = month.atDay(Math.min(card.getDueDay(), month.lengthOfMonth()));
+                invoices.add(new InvoiceDue(card.getId(), card.getName(), invoiceMonth, dueDate.toString(),
+                        Math.round(total * 100) / 100.0, dueDate.isBefore(today)));
+            }
+        }
+        invoices.sort(Comparator.comparing(InvoiceDue::getDueDate));
+        return invoices;
+    }
+
+    // Malformed invoice months never match a card's invoice
+    private static YearMonth parseInvoiceMonth(String invoiceMonth) {
+        try {
+            return YearMonth.parse(invoiceMonth, INVOICE_MONTH);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String invoiceName(Account card, String invoiceMonth) {
+        return "Fatura " + card.getName() + " - " + invoiceMonth;
+    }
+}
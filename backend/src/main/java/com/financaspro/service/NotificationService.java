@@ -0,0 +1,89 @@
+package com.financaspro.service;
+
+import com.financaspro.dto.InvoiceDue;
+import com.financaspro.dto.PendingNotifications;
+import com.financaspro.model.Transaction;
+import com.financaspro.model.TransactionType;
+import com.financaspro.repository.TransactionRepository;
+import com.financaspro.util.UserContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the pending-bills modal needs at startup, answered from the
+ * (userId, isApplied, type, date) index instead of the full history.
+ */
+@Service
+public class NotificationService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @Autowired
+    private UserContext userContext;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private Clock clock;
+
+    public PendingNotifications findPending(int days) {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate until = today.plusDays(days);
+        return recurringTransactionService.readMaterializedUntil(until.toString(),
+                () -> buildPending(today, until));
+    }
+
+    /**
+     * The pending expenses alone, overdue first, by date: what
+     * GET /api/transactions/pending reports.
+     */
+    public List<Transaction> findPendingExpenses(int days) {
+        String until = LocalDate.now(clock).plusDays(days).toString();
+        return recurringTransactionService.readMaterializedUntil(until,
+                () -> pendingExpenses(userContext.getCurrentUserId(), until));
+    }
+
+    private List<Transaction> pendingExpenses(String userId, String until) {
+        return categoryDictionary.decode(userId,
+                transactionRepository.findPendingByUserIdAndTypeUntil(userId, TransactionType.EXPENSE, until));
+    }
+
+    private PendingNotifications buildPending(LocalDate today, LocalDate until) {
+        String userId = userContext.getCurrentUserId();
+        List<Transaction> overdue = new ArrayList<>();
+        List<Transaction> upcoming = new ArrayList<>();
+        String todayStr = today.toString();
+        for (Transaction t : pendingExpenses(userId, until.toString())) {
+            if (t.getDate().compareTo(todayStr) < 0) {
+                overdue.add(t);
+            } else {
+                upcoming.add(t);
+            }
+        }
+
+        return new PendingNotifications(overdue, upcoming, findInvoicesDue(userId, until));
+    }
+
+    // Every open invoice due by the window end, however long overdue; closed
+    // ones already appear above as their "Fatura" pending expense
+    private List<InvoiceDue> findInvoicesDue(String userId, LocalDate until) {
+        return invoiceService.findOpenInvoicesBefore(userId, invoiceService.findCards(userId),
+                YearMonth.from(until).plusMonths(1)).stream()
+                .filter(invoice -> invoice.getDueDate().compareTo(until.toString()) <= 0)
+                .toList();
+    }
+}
@@ -0,0 +1,263 @@
+package com.financaspro.service;
+
+import com.financaspro.model.RecurringTransaction;
+import com.financaspro.model.Transaction;
+import com.financaspro.repository.RecurringTransactionRepository;
+import com.financaspro.repository.TransactionArchiveRepository;
+import com.financaspro.repository.TransactionRepository;
+import com.financaspro.util.UserContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Recurrence definitions are stored once; their occurrences become pending
+ * transactions only when a read (or the nightly roll-forward) reaches them.
+ * Reads materialize first, in a write transaction of their own, and only then
+ * open their read-only one: a read-only transaction already holds a replica
+ * connection, and the replica would not see the rows just written.
+ */
+@Service
+public class RecurringTransactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringTransactionService.class);
+
+    private static final String ROLL_FORWARD_LOCK = "recurring_roll_forward";
+
+    @Autowired
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionSearchService transactionSearchService;
+
+    @Autowired
+    private UserContext userContext;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Autowired
+    private Clock clock;
+
+    private TransactionTemplate writeTransaction;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Value("${financaspro.recurring.horizon-days:60}")
+    private int horizonDays;
+
+    // Upper bound for how far ahead a single read may materialize
+    @Value("${financaspro.recurring.max-ahead-days:730}")
+    private int maxAheadDays;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringTransaction> findAll() {
+        return recurringTransactionRepository.findAllByUserId(userContext.getCurrentUserId());
+    }
+
+    public Optional<RecurringTransaction> findById(String id) {
+        Optional<RecurringTransaction> recurring = recurringTransactionRepository.findById(id);
+        if (recurring.isPresent() && !recurring.get().getUserId().equals(userContext.getCurrentUserId())) {
+            return Optional.empty();
+        }
+        return recurring;
+    }
+
+    @Transactional
+    public RecurringTransaction save(RecurringTransaction recurring) {
+        String userId = userContext.getCurrentUserId();
+        if (recurring.getId() == null) {
+            recurring.setId(UUID.randomUUID().toString());
+        }
+        Optional<RecurringTransaction> existing = recurringTransactionRepository.findById(recurring.getId());
+        // Another user's id is treated as missing, not taken over
+        if (existing.isPresent() && !userId.equals(existing.get().getUserId())) {
+            throw new NoSuchElementException("Recurring transaction not found: " + recurring.getId());
+        }
+        recurring.setUserId(userId);
+
+        // A changed definition replaces its future pending occurrences; applied
+        // and past ones are history and stay as they are
+        LocalDate today = LocalDate.now(clock);
+        if (existing.isPresent() && existing.get().getMaterializedUntil() != null) {
+            deletePendingOccurrences(userId, recurring.getId(), today.toString());
+            String yesterday = today.minusDays(1).toString();
+            String previous = existing.get().getMaterializedUntil();
+            recurring.setMaterializedUntil(previous.compareTo(yesterday) < 0 ? previous : yesterday);
+        } else {
+            recurring.setMaterializedUntil(null);
+        }
+
+        RecurringTransaction saved = recurringTransactionRepository.save(recurring);
+        materialize(saved, today.plusDays(horizonDays));
+        return saved;
+    }
+
+    @Transactional
+    public void deleteById(String id) {
+        Optional<RecurringTransaction> recurring = findById(id);
+        if (recurring.isPresent()) {
+            deletePendingOccurrences(recurring.get().getUserId(), id, LocalDate.now(clock).toString());
+            recurringTransactionRepository.deleteById(id);
+        }
+    }
+
+    // Like deleting the transactions one by one: out of the search index and the rollups too
+    private void deletePendingOccurrences(String userId, String recurrenceId, String from) {
+        List<Transaction> occurrences = transactionRepository.findPendingOccurrences(recurrenceId, from);
+        if (occurrences.isEmpty()) {
+            return;
+        }
+        transactionRepository.removeAll(occurrences);
+        transactionSearchService.remove(userId, occurrences.stream().map(Transaction::getId).toList());
+        transactionArchiveService.refreshRollups(userId, occurrences.stream().map(Transaction::getDate).toList());
+    }
+
+    /**
+     * Materializes the current user's recurrences up to {@code until}, then
+     * runs {@code read} in a read-only transaction. Anything written marks the
+     * user as a recent writer, so that read is routed to the primary.
+     */
+    public <T> T readMaterializedUntil(String until, Supplier<T> read) {
+        materializeUntil(until);
+        return readOnlyTransaction.execute(status -> read.get());
+    }
+
+    public <T> T readMaterializedHorizon(Supplier<T> read) {
+        return readMaterializedUntil(LocalDate.now(clock).plusDays(horizonDays).toString(), read);
+    }
+
+    /**
+     * Makes sure every occurrence of the current user's recurrences up to
+     * {@code until} (at most maxAheadDays from today) exists. Cheap when
+     * nothing is due: one indexed query, outside any transaction. Must not be
+     * called from a read-only transaction.
+     *
+     * @throws java.time.format.DateTimeParseException if until is not a date
+     */
+    public void materializeUntil(String until) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new IllegalStateException("Recurrences must be materialized before the read-only transaction starts");
+        }
+        // Beyond the cap nothing is materialized, so a later date would look due forever
+        LocalDate date = LocalDate.parse(until);
+        LocalDate maxAhead = LocalDate.now(clock).plusDays(maxAheadDays);
+        LocalDate capped = date.isAfter(maxAhead) ? maxAhead : date;
+        String userId = userContext.getCurrentUserId();
+        List<RecurringTransaction> due = recurringTransactionRepository.findAllByUserIdMaterializedBefore(userId,
+                capped.toString());
+        if (!due.isEmpty()) {
+            writeTransaction.executeWithoutResult(status -> due.forEach(recurring -> materialize(recurring, capped)));
+        }
+    }
+
+    // Occurrence ids are deterministic: two instances rolling forward at once
+    // would insert the same rows, so only one runs it
+    @Scheduled(cron = "${financaspro.recurring.roll-forward-cron:0 0 3 * * *}")
+    public void rollForward() {
+        if (!transactionArchiveRepository.runExclusively(ROLL_FORWARD_LOCK, this::rollForwardAll)) {
+            log.info("Recurring transaction roll-forward is running on another instance");
+        }
+    }
+
+    private void rollForwardAll() {
+        LocalDate horizon = LocalDate.now(clock).plusDays(horizonDays);
+        for (RecurringTransaction recurring : recurringTransactionRepository
+                .findAllMaterializedBefore(horizon.toString())) {
+            materialize(recurring, horizon);
+        }
+    }
+
+    private void materialize(RecurringTransaction recurring, LocalDate until) {
+        if (recurring.getStartDate() == null || recurring.getDayOfMonth() == null) {
+            return;
+        }
+        LocalDate start = LocalDate.parse(recurring.getStartDate());
+        LocalDate from = recurring.getMaterializedUntil() == null ? start
+                : LocalDate.parse(recurring.getMaterializedUntil()).plusDays(1);
+
+        LocalDate to = until;
+        LocalDate maxAhead = LocalDate.now(clock).plusDays(maxAheadDays);
+        if (to.isAfter(maxAhead)) {
+            to = maxAhead;
+        }
+        if (recurring.getEndDate() != null && to.isAfter(LocalDate.parse(recurring.getEndDate()))) {
+            to = LocalDate.parse(recurring.getEndDate());
+        }
+        if (to.isBefore(from)) {
+            return;
+        }
+
+        List<Transaction> occurrences = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            LocalDate date = month.atDay(Math.min(recurring.getDayOfMonth(), month.lengthOfMonth()));
+            if (!date.isBefore(from) && !date.isBefore(start) && !date.isAfter(to)) {
+                occurrences.add(occurrence(recurring, month, date));
+            }
+        }
+
+        // Ids are deterministic per month, so an occurrence that already exists
+        // (possibly applied or edited by the user) is never overwritten
+        Set<String> existingIds = new HashSet<>();
+        transactionRepository.findAllByIds(occurrences.stream().map(Transaction::getId).toList())
+                .forEach(t -> existingIds.add(t.getId()));
+        List<Transaction> toCreate = occurrences.stream().filter(t -> !existingIds.contains(t.getId())).toList();
+
+        if (!toCreate.isEmpty()) {
+            CategoryDictionary.Dictionary dictionary = categoryDictionary.forUser(recurring.getUserId());
+            toCreate.forEach(dictionary::encode);
+            List<Transaction> saved = transactionRepository.upsertAll(toCreate);
+            saved.forEach(dictionary::decode);
+            transactionSearchService.indexAll(saved);
+            transactionArchiveService.refreshRollups(recurring.getUserId(),
+                    saved.stream().map(Transaction::getDate).toList());
+        }
+        recurring.setMaterializedUntil(to.toString());
+        recurringTransactionRepository.save(recurring);
+    }
+
+    private static Transaction occurrence(RecurringTransaction recurring, YearMonth month, LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setId(recurring.getId() + "-" + month);
+        transaction.setUserId(recurring.getUserId());
+        transaction.setDescription(recurring.getDescription());
+        transaction.setAmount(recurring.getAmount());
+        transaction.setDate(date.toString());
+        transaction.setCategory(recurring.getCategory());
+        transaction.setType(recurring.getType());
+        transaction.setIsApplied(false);
+        transaction.setObservations(recurring.getObservations());
+        transaction.setAccountId(recurring.getAccountId());
+        transaction.setRecurrenceId(recurring.getId());
+        return transaction;
+    }
+}
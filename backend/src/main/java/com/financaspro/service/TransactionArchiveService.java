@@ -0,0 +1,219 @@
+package com.financaspro.service;
+
+import com.financaspro.model.ArchivedYear;
+import com.financaspro.repository.ArchivedYearRepository;
+import com.financaspro.repository.TransactionArchiveRepository;
+import com.financaspro.repository.TransactionRepository;
+import com.financaspro.repository.TransactionRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Hot/cold split of the transaction history by year. The current year and the
+ * one before are hot; older years are closed once, by a nightly job: their
+ * monthly rollups are built and (on PostgreSQL) their partition is compacted.
+ * Date-bounded queries reach the right partitions by pruning; the balance
+ * sums here read rollups for closed years and raw rows only for the open ones.
+ */
+@Service
+public class TransactionArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiveService.class);
+
+    // Partitions are created this many years ahead (installments, recurrences)
+    private static final int YEARS_AHEAD = 3;
+
+    private static final long ARCHIVED_YEARS_TTL_NANOS = 60_000_000_000L;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionRollupRepository transactionRollupRepository;
+
+    @Autowired
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Autowired
+    private ArchivedYearRepository archivedYearRepository;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${financaspro.archive.hot-years:2}")
+    private int hotYears;
+
+    @Value("${financaspro.archive.tablespace:}")
+    private String tablespace;
+
+    @Value("${financaspro.archive.years-per-run:1}")
+    private int yearsPerRun;
+
+    // Sorted archived years; null until first read
+    private volatile NavigableSet<Integer> archivedYears;
+    private volatile long archivedYearsLoadedAt;
+
+    public double sumAccountFlowBefore(String userId, String accountId, String date) {
+        String cutoff = rollupCutoff(date);
+        if (cutoff == null) {
+            return transactionRepository.sumAccountFlowBetween(userId, accountId, "", date);
+        }
+        LocalDate month = LocalDate.parse(cutoff);
+        return transactionRollupRepository.sumAccountFlowBefore(userId, accountId, month.getYear(),
+                month.getMonthValue()) + transactionRepository.sumAccountFlowBetween(userId, accountId, cutoff, date);
+    }
+
+    public double sumCashFlowBefore(String userId, String date) {
+        String cutoff = rollupCutoff(date);
+        if (cutoff == null) {
+            return transactionRepository.sumCashFlowBetween(userId, "", date);
+        }
+        LocalDate month = LocalDate.parse(cutoff);
+        return transactionRollupRepository.sumCashFlowBefore(userId, month.getYear(), month.getMonthValue())
+                + transactionRepository.sumCashFlowBetween(userId, cutoff, date);
+    }
+
+    /**
+     * Dates already stored for these ids, so a write that moves a transaction
+     * out of an archived year also refreshes that year. Skipped (no query)
+     * while nothing is archived.
+     */
+    public List<String> previousDates(Collection<String> ids) {
+        if (archivedYears().isEmpty() || ids.isEmpty()) {
+            return List.of();
+        }
+        return transactionRepository.findDatesByIdIn(ids);
+    }
+
+    /**
+     * Call after writing transactions with these dates (old and new). Rollups
+     * must cover everything before the hot window, so a row imported into a year
+     * older than any archived one archives that year too.
+     */
+    public void refreshRollups(String userId, Collection<String> dates) {
+        NavigableSet<Integer> archived = archivedYears();
+        if (archived.isEmpty()) {
+            return;
+        }
+        Set<Integer> years = new TreeSet<>();
+        for (String date : dates) {
+            Integer year = yearOf(date);
+            if (year != null && year <= archived.last()) {
+                years.add(year);
+            }
+        }
+        for (Integer year : years) {
+            transactionArchiveRepository.rebuildRollups(year, userId);
+            if (!archived.contains(year)) {
+                archivedYearRepository.save(new ArchivedYear(year, Instant.now(clock).toString()));
+                archivedYears = null;
+            }
+        }
+    }
+
+    // After changes that can touch any year (category codes adopted)
+    public void refreshAllRollups(String userId) {
+        archivedYears().forEach(year -> transactionArchiveRepository.rebuildRollups(year, userId));
+    }
+
+    public void clear(String userId) {
+        transactionRollupRepository.deleteAllByUserId(userId);
+    }
+
+    /**
+     * Creates upcoming partitions and closes the oldest years beyond the hot
+     * window that aren't archived yet, at most yearsPerRun per run. CLUSTER
+     * locks the partition it packs, so this only runs from the nightly job,
+     * never at startup, and on one instance at a time.
+     */
+    @Scheduled(cron = "${financaspro.archive.cron:0 30 3 * * *}")
+    public void archiveClosedYears() {
+        if (!transactionArchiveRepository.runExclusively(this::archiveNextYears)) {
+            log.info("Transaction archive is running on another instance");
+        }
+    }
+
+    private void archiveNextYears() {
+        int currentYear = LocalDate.now(clock).getYear();
+        boolean partitioned = transactionArchiveRepository.isPartitioned();
+        if (partitioned) {
+            for (int year = currentYear; year <= currentYear + YEARS_AHEAD; year++) {
+                transactionArchiveRepository.ensureYearPartition(year);
+            }
+        }
+
+        // Oldest first: rollups must cover every year before the newest archived one
+        Integer firstYear = yearOf(transactionArchiveRepository.findMinDate());
+        int lastClosed = currentYear - hotYears;
+        Set<Integer> archived = new HashSet<>(loadArchivedYears());
+        int closed = 0;
+        for (int year = firstYear == null ? lastClosed + 1 : firstYear; year <= lastClosed
+                && closed < yearsPerRun; year++) {
+            if (archived.contains(year)) {
+                continue;
+            }
+            int rollups = transactionArchiveRepository.rebuildRollups(year, null);
+            if (partitioned) {
+                transactionArchiveRepository.ensureYearPartition(year);
+                transactionArchiveRepository.compactYearPartition(year, tablespace);
+            }
+            archivedYearRepository.save(new ArchivedYear(year, Instant.now(clock).toString()));
+            log.info("Archived transactions of {} ({} rollup rows)", year, rollups);
+            closed++;
+        }
+        archivedYears = null;
+    }
+
+    // Reloaded now and then: another instance may have archived a year since
+    private NavigableSet<Integer> archivedYears() {
+        NavigableSet<Integer> years = archivedYears;
+        if (years == null || System.nanoTime() - archivedYearsLoadedAt > ARCHIVED_YEARS_TTL_NANOS) {
+            years = loadArchivedYears();
+            archivedYearsLoadedAt = System.nanoTime();
+            archivedYears = years;
+        }
+        return years;
+    }
+
+    private NavigableSet<Integer> loadArchivedYears() {
+        TreeSet<Integer> loaded = new TreeSet<>();
+        archivedYearRepository.findAll().forEach(y -> loaded.add(y.getYear()));
+        return loaded;
+    }
+
+    // First day not covered by rollups, or null when nothing is archived
+    private String hotFrom() {
+        NavigableSet<Integer> archived = archivedYears();
+        return archived.isEmpty() ? null : String.format("%04d-01-01", archived.last() + 1);
+    }
+
+    // Rollups answer whole months before min(date's month, hot window start)
+    private String rollupCutoff(String date) {
+        String hotFrom = hotFrom();
+        if (hotFrom == null) {
+            return null;
+        }
+        String monthStart = date.substring(0, 7) + "-01";
+        return monthStart.compareTo(hotFrom) < 0 ? monthStart : hotFrom;
+    }
+
+    private static Integer yearOf(String date) {
+        if (date == null || date.length() < 4) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(date.substring(0, 4));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
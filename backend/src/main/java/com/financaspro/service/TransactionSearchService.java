@@ -0,0 +1,322 @@
+package com.financaspro.service;
+
+import com.financaspro.model.Transaction;
+import com.financaspro.repository.TransactionRepository;
+import com.financaspro.util.TextNormalizer;
+import com.financaspro.util.UserContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user inverted index over description, observations and category.
+ * Kept in memory, updated on every write and flushed to disk periodically, so
+ * searches never scan the transaction table. Each file carries a checksum of
+ * the indexed text taken when it was written; a file whose checksum no longer
+ * matches the database (writes after the last flush, from another instance,
+ * or a category rename) is rebuilt instead of trusted.
+ */
+@Service
+public class TransactionSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionSearchService.class);
+
+    private static final int FILE_VERSION = 3;
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserContext userContext;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Value("${financaspro.search.index-dir:data/search-index}")
+    private String indexDir;
+
+    private final Map<String, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    public List<Transaction> search(String query, int limit) {
+        String userId = userContext.getCurrentUserId();
+        List<String> terms = TextNormalizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> ids = getOrLoad(userId).match(terms, limit);
+        List<Transaction> found = transactionRepository.findAllByIds(ids).stream()
+                .filter(t -> userId.equals(t.getUserId()))
+                .toList();
+        Map<String, Transaction> byId = categoryDictionary.decode(userId, found).stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public void index(Transaction transaction) {
+        getOrLoad(transaction.getUserId()).put(transaction.getId(), termsOf(transaction));
+    }
+
+    public void indexAll(List<Transaction> transactions) {
+        transactions.forEach(this::index);
+    }
+
+    public void remove(String userId, Collection<String> transactionIds) {
+        UserIndex index = getOrLoad(userId);
+        transactionIds.forEach(index::remove);
+    }
+
+    public void clear(String userId) {
+        indexes.remove(userId);
+        try {
+            Files.deleteIfExists(fileFor(userId));
+        } catch (IOException e) {
+            log.warn("Could not delete search index for user {}", userId, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${financaspro.search.flush-interval-ms:30000}")
+    @PreDestroy
+    public void flush() {
+        indexes.forEach((userId, index) -> {
+            if (index.isDirty()) {
+                persist(userId, index);
+            }
+        });
+    }
+
+    private UserIndex getOrLoad(String userId) {
+        return indexes.computeIfAbsent(userId, this::load);
+    }
+
+    private UserIndex load(String userId) {
+        Path file = fileFor(userId);
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() == FILE_VERSION) {
+                    Mark written = new Mark(in.readLong(), in.readUTF());
+                    if (written.equals(markOf(userId))) {
+                        UserIndex index = new UserIndex();
+                        int docCount = in.readInt();
+                        for (int i = 0; i < docCount; i++) {
+                            String id = in.readUTF();
+                            int termCount = in.readInt();
+                            Set<String> terms = new HashSet<>(termCount * 2);
+                            for (int j = 0; j < termCount; j++) {
+                                terms.add(in.readUTF());
+                            }
+                            index.put(id, terms);
+                        }
+                        index.markClean();
+                        return index;
+                    }
+                    log.info("Search index for user {} is behind the database, rebuilding", userId);
+                }
+            } catch (IOException e) {
+                log.warn("Search index for user {} is unreadable, rebuilding", userId, e);
+            }
+        }
+
+        // First search for this user (or stale or corrupt file): build once from the database
+        UserIndex index = new UserIndex();
+        for (Transaction transaction : categoryDictionary.decode(userId, transactionRepository.findAllByUserId(userId))) {
+            index.put(transaction.getId(), termsOf(transaction));
+        }
+        return index;
+    }
+
+    private void persist(String userId, UserIndex index) {
+        Path file = fileFor(userId);
+        try {
+            Files.createDirectories(file.getParent());
+            // A write committed before the mark but indexed after the snapshot
+            // leaves the index dirty, so the next flush writes it again
+            Mark mark = markOf(userId);
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                index.writeTo(out, mark);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | DataAccessException e) {
+            log.warn("Could not persist search index for user {}", userId, e);
+        }
+    }
+
+    // SHA-256 over exactly the text each row is indexed by, categories resolved
+    // to their current names, in id order
+    private Mark markOf(String userId) {
+        CategoryDictionary.Dictionary dictionary = categoryDictionary.forUser(userId);
+        List<Object[]> rows = new ArrayList<>(transactionRepository.findSearchableText(userId));
+        rows.sort(Comparator.comparing(row -> (String) row[0]));
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Object[] row : rows) {
+            String category = dictionary.nameOf((Integer) row[4]);
+            update(digest, (String) row[0]);
+            update(digest, (String) row[1]);
+            update(digest, (String) row[2]);
+            update(digest, category != null ? category : (String) row[3]);
+        }
+        return new Mark(rows.size(), HexFormat.of().formatHex(digest.digest()));
+    }
+
+    // Length-prefixed, so text moving from one field to the next changes the digest
+    private static void update(MessageDigest digest, String text) {
+        byte[] bytes = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private Path fileFor(String userId) {
+        return Paths.get(indexDir, userId.replaceAll("[^A-Za-z0-9_-]", "_") + ".idx");
+    }
+
+    private static Set<String> termsOf(Transaction transaction) {
+        Set<String> terms = new HashSet<>();
+        terms.addAll(TextNormalizer.tokenize(transaction.getDescription()));
+        terms.addAll(TextNormalizer.tokenize(transaction.getObservations()));
+        terms.addAll(TextNormalizer.tokenize(transaction.getCategory()));
+        return terms;
+    }
+
+    private record Mark(long rows, String checksum) {
+    }
+
+    private static class UserIndex {
+
+        // Sorted so prefix queries are a single subMap range
+        private final TreeMap<String, Set<String>> postings = new TreeMap<>();
+        private final Map<String, Set<String>> docTerms = new HashMap<>();
+        private boolean dirty;
+
+        synchronized void put(String id, Set<String> terms) {
+            remove(id);
+            docTerms.put(id, terms);
+            for (String term : terms) {
+                postings.computeIfAbsent(term, k -> new HashSet<>()).add(id);
+            }
+            dirty = true;
+        }
+
+        synchronized void remove(String id) {
+            Set<String> terms = docTerms.remove(id);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Set<String> ids = postings.get(term);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            dirty = true;
+        }
+
+        /**
+         * Every query term must match (exact, prefix or within a small edit
+         * distance). Results are ordered by the summed match quality.
+         */
+        synchronized List<String> match(List<String> queryTerms, int limit) {
+            Map<String, Integer> scores = null;
+
+            for (String queryTerm : queryTerms) {
+                Map<String, Integer> termScores = new HashMap<>();
+
+                for (Map.Entry<String, Set<String>> entry : postings
+                        .subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, true).entrySet()) {
+                    int score = entry.getKey().equals(queryTerm) ? EXACT_SCORE : PREFIX_SCORE;
+                    entry.getValue().forEach(id -> termScores.merge(id, score, Math::max));
+                }
+
+                // Typo tolerance only for terms long enough to be meaningful; candidates
+                // share the first letter to keep the vocabulary walk short
+                if (queryTerm.length() >= 4) {
+                    int maxDistance = queryTerm.length() >= 8 ? 2 : 1;
+                    String first = queryTerm.substring(0, 1);
+                    for (Map.Entry<String, Set<String>> entry : postings
+                            .subMap(first, true, first + Character.MAX_VALUE, true).entrySet()) {
+                        if (TextNormalizer.withinEditDistance(queryTerm, entry.getKey(), maxDistance)) {
+                            entry.getValue().forEach(id -> termScores.merge(id, FUZZY_SCORE, Math::max));
+                        }
+                    }
+                }
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<String, Integer> previous = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<String, Integer> entry : termScores.entrySet()) {
+                        Integer prior = previous.get(entry.getKey());
+                        if (prior != null) {
+                            scores.put(entry.getKey(), prior + entry.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+
+        synchronized boolean isDirty() {
+            return dirty;
+        }
+
+        synchronized void markClean() {
+            dirty = false;
+        }
+
+        synchronized void writeTo(DataOutputStream out, Mark mark) throws IOException {
+            out.writeInt(FILE_VERSION);
+            out.writeLong(mark.rows());
+            out.writeUTF(mark.checksum());
+            out.writeInt(docTerms.size());
+            for (Map.Entry<String, Set<String>> entry : docTerms.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (String term : entry.getValue()) {
+                    out.writeUTF(term);
+                }
+            }
+            dirty = false;
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.financaspro.service;
 
+import com.financaspro.dto.BulkUpdateResult;
+import com.financaspro.dto.DuplicateMatch;
+import com.financaspro.dto.TransactionBulkUpdate;
 import com.financaspro.model.Transaction;
+import com.financaspro.model.TransactionType;
 import com.financaspro.repository.TransactionRepository;
 import com.financaspro.util.UserContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDate;
+import java.util.*;
 
 @Service
 public class TransactionService {
@@ -18,48 +23,171 @@ public class TransactionService {
     @Autowired
     private UserContext userContext;
 
+    @Autowired
+    private TransactionSearchService transactionSearchService;
+
+    @Autowired
+    private CategorizationService categorizationService;
+
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
     @SuppressWarnings("null")
     public List<Transaction> findAll() {
-        return transactionRepository.findAllByUserId(userContext.getCurrentUserId());
+        String userId = userContext.getCurrentUserId();
+        return recurringTransactionService.readMaterializedHorizon(
+                () -> categoryDictionary.decode(userId, transactionRepository.findAllByUserId(userId)));
     }
 
+    // Dates must be ISO dates (DateTimeParseException otherwise): they are compared as strings
     public List<Transaction> findByDateRange(String startDate, String endDate) {
-        return transactionRepository.findAllByUserIdAndDateBetween(userContext.getCurrentUserId(), startDate, endDate);
+        LocalDate.parse(startDate);
+        LocalDate.parse(endDate);
+        String userId = userContext.getCurrentUserId();
+        return recurringTransactionService.readMaterializedUntil(endDate, () -> categoryDictionary.decode(userId,
+                transactionRepository.findAllByUserIdAndDateBetween(userId, startDate, endDate)));
     }
 
     public Optional<Transaction> findById(String id) {
-        Optional<Transaction> transaction = transactionRepository.findById(id);
-        if (transaction.isPresent() && !transaction.get().getUserId().equals(userContext.getCurrentUserId())) {
+        Optional<Transaction> transaction = transactionRepository.findAllByIds(List.of(id)).stream().findFirst();
+        String userId = userContext.getCurrentUserId();
+        if (transaction.isPresent() && !transaction.get().getUserId().equals(userId)) {
             return Optional.empty();
         }
-        return transaction;
+        return transaction.map(t -> categoryDictionary.decode(userId, t));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Transaction> search(String query, int limit) {
+        return transactionSearchService.search(query, limit);
     }
 
     public Transaction save(Transaction transaction) {
-        transaction.setUserId(userContext.getCurrentUserId());
-        return transactionRepository.save(transaction);
+        return saveAll(List.of(transaction)).get(0);
     }
 
     public List<Transaction> saveAll(List<Transaction> transactions) {
         String userId = userContext.getCurrentUserId();
-        transactions.forEach(t -> t.setUserId(userId));
-        return transactionRepository.saveAll(transactions);
+        CategoryDictionary.Dictionary dictionary = categoryDictionary.forUser(userId);
+        transactions.forEach(t -> {
+            t.setUserId(userId);
+            dictionary.encode(t);
+        });
+        List<String> touchedDates = new ArrayList<>(transactionArchiveService.previousDates(
+                transactions.stream().map(Transaction::getId).filter(Objects::nonNull).toList()));
+        List<Transaction> saved = transactionRepository.upsertAll(transactions);
+        saved.forEach(dictionary::decode);
+        transactionSearchService.indexAll(saved);
+        saved.forEach(t -> touchedDates.add(t.getDate()));
+        transactionArchiveService.refreshRollups(userId, touchedDates);
+        return saved;
+    }
+
+    /**
+     * Sets the same fields on many transactions with one UPDATE per 1000 ids,
+     * scoped to the current user, instead of merging whole entities. Rows are
+     * only read back when the search terms (category, observations) change.
+     */
+    public BulkUpdateResult updateFields(TransactionBulkUpdate update) {
+        String userId = userContext.getCurrentUserId();
+        List<String> ids = update.getIds() == null ? List.of() : update.getIds();
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (update.getIsApplied() != null) {
+            values.put("isApplied", update.getIsApplied());
+        }
+        if (update.getIgnoreInBudget() != null) {
+            values.put("ignoreInBudget", update.getIgnoreInBudget());
+        }
+        // The same name may be one category per type: rows first get the name
+        // as text, then each type that has it takes that category's code
+        Map<TransactionType, Integer> categoryCodes = Map.of();
+        if (update.getCategory() != null) {
+            categoryCodes = categoryDictionary.forUser(userId).codesOf(update.getCategory());
+            values.put("categoryCode", null);
+            values.put("unresolvedCategory", update.getCategory());
+        }
+        if (update.getAccountId() != null) {
+            values.put("accountId", update.getAccountId());
+        }
+        if (update.getInvoiceMonth() != null) {
+            values.put("invoiceMonth", update.getInvoiceMonth());
+        }
+        if (update.getObservations() != null) {
+            values.put("observations", update.getObservations());
+        }
+        if (ids.isEmpty() || values.isEmpty()) {
+            return new BulkUpdateResult(0);
+        }
+
+        // Rollups are grouped by account and category
+        boolean rollupsChange = values.containsKey("accountId") || values.containsKey("categoryCode");
+        List<String> touchedDates = rollupsChange ? transactionArchiveService.previousDates(ids) : List.of();
+
+        int updated = transactionRepository.updateFields(userId, ids, values);
+        for (Map.Entry<TransactionType, Integer> code : categoryCodes.entrySet()) {
+            Map<String, Object> encoded = new HashMap<>();
+            encoded.put("categoryCode", code.getValue());
+            encoded.put("unresolvedCategory", null);
+            transactionRepository.updateFields(userId, ids, encoded, code.getKey());
+        }
+
+        if (updated > 0 && (values.containsKey("categoryCode") || values.containsKey("observations"))) {
+            transactionSearchService.indexAll(categoryDictionary.decode(userId,
+                    transactionRepository.findAllByUserIdAndIdIn(userId, ids)));
+        }
+        if (updated > 0 && rollupsChange) {
+            transactionArchiveService.refreshRollups(userId, touchedDates);
+        }
+        return new BulkUpdateResult(updated);
+    }
+
+    public List<Transaction> createAll(List<Transaction> transactions) {
+        return saveAll(categorizationService.categorize(transactions));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Transaction> suggestCategories(List<Transaction> transactions) {
+        return categorizationService.categorize(transactions);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DuplicateMatch> checkDuplicates(List<Transaction> candidates) {
+        return duplicateDetectionService.check(candidates);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DuplicateMatch> findDuplicates() {
+        return duplicateDetectionService.sweep();
     }
 
     public void deleteById(String id) {
         Optional<Transaction> transaction = findById(id);
         if (transaction.isPresent()) {
-            transactionRepository.deleteById(id);
+            transactionRepository.removeAll(List.of(transaction.get()));
+            transactionSearchService.remove(transaction.get().getUserId(), List.of(id));
+            transactionArchiveService.refreshRollups(transaction.get().getUserId(),
+                    Collections.singletonList(transaction.get().getDate()));
         }
     }
 
     public void deleteBatch(List<String> ids) {
         String userId = userContext.getCurrentUserId();
-        List<Transaction> transactions = transactionRepository.findAllById(ids);
+        List<Transaction> transactions = transactionRepository.findAllByIds(ids);
         // Filter to ensure user owns these transactions
         List<Transaction> userTransactions = transactions.stream()
                 .filter(t -> t.getUserId().equals(userId))
                 .toList();
-        transactionRepository.deleteAll(userTransactions);
+        transactionRepository.removeAll(userTransactions);
+        transactionSearchService.remove(userId, userTransactions.stream().map(Transaction::getId).toList());
+        transactionArchiveService.refreshRollups(userId, userTransactions.stream().map(Transaction::getDate).toList());
     }
 }
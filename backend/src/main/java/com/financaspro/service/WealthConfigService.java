@@ -2,9 +2,13 @@ package com.financaspro.service;
 
 import com.financaspro.model.WealthConfig;
 import com.financaspro.repository.WealthConfigRepository;
+import com.financaspro.util.EntityVersions;
 import com.financaspro.util.UserContext;
+import com.financaspro.util.UserLockManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 
@@ -17,18 +21,44 @@ public class WealthConfigService {
     @Autowired
     private UserContext userContext;
 
+    @Autowired
+    private UserLockManager userLockManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Transactional(readOnly = true)
     public WealthConfig get() {
         return wealthConfigRepository.findByUserId(userContext.getCurrentUserId())
-                .orElse(new WealthConfig(null, userContext.getCurrentUserId(), 0.0));
+                .orElse(new WealthConfig(null, userContext.getCurrentUserId(), 0.0, null));
     }
 
     public WealthConfig save(WealthConfig config) {
+        return save(config, null);
+    }
+
+    /**
+     * One config per user: the lookup and the insert run under the user's lock,
+     * so concurrent first saves can't both insert. Unversioned saves that pile
+     * up (e.g. a slider being dragged) coalesce into the newest one.
+     */
+    public WealthConfig save(WealthConfig config, Long expectedVersion) {
         String userId = userContext.getCurrentUserId();
+        if (expectedVersion != null) {
+            return userLockManager.withLock(userId,
+                    () -> transactionTemplate.execute(status -> doSave(userId, config, expectedVersion)));
+        }
+        return userLockManager.coalesce(userId, "wealth-config", config,
+                latest -> transactionTemplate.execute(status -> doSave(userId, latest, null)));
+    }
+
+    private WealthConfig doSave(String userId, WealthConfig config, Long expectedVersion) {
         Optional<WealthConfig> existing = wealthConfigRepository.findByUserId(userId);
 
-        if (existing.isPresent()) {
-            config.setId(existing.get().getId());
-        }
+        EntityVersions.check(WealthConfig.class, userId, expectedVersion,
+                existing.map(WealthConfig::getVersion).orElse(null));
+        config.setId(existing.map(WealthConfig::getId).orElse(null));
+        config.setVersion(existing.map(WealthConfig::getVersion).orElse(null));
         config.setUserId(userId);
         return wealthConfigRepository.save(config);
     }
@@ -0,0 +1,77 @@
+package com.financaspro.util;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Multi-keyword matcher: builds a trie with failure links once, then reports
+ * every keyword occurrence in a text with a single left-to-right pass.
+ */
+public class AhoCorasick<V> {
+
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<Integer> failure = new ArrayList<>();
+    private final List<List<V>> outputs = new ArrayList<>();
+
+    public AhoCorasick(Map<String, V> keywords) {
+        newNode();
+        keywords.forEach(this::insert);
+        buildFailureLinks();
+    }
+
+    public void forEachMatch(String text, Consumer<V> consumer) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            while (state != 0 && !transitions.get(state).containsKey(c)) {
+                state = failure.get(state);
+            }
+            state = transitions.get(state).getOrDefault(c, 0);
+            for (V value : outputs.get(state)) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    private int newNode() {
+        transitions.add(new HashMap<>());
+        failure.add(0);
+        outputs.add(new ArrayList<>(1));
+        return transitions.size() - 1;
+    }
+
+    private void insert(String keyword, V value) {
+        int state = 0;
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            Integer next = transitions.get(state).get(c);
+            if (next == null) {
+                next = newNode();
+                transitions.get(state).put(c, next);
+            }
+            state = next;
+        }
+        outputs.get(state).add(value);
+    }
+
+    private void buildFailureLinks() {
+        Deque<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+                queue.add(child);
+
+                int fallback = failure.get(state);
+                while (fallback != 0 && !transitions.get(fallback).containsKey(c)) {
+                    fallback = failure.get(fallback);
+                }
+                int link = transitions.get(fallback).getOrDefault(c, 0);
+                failure.set(child, link == child ? 0 : link);
+                // Inherit matches that end at the failure target (suffix keywords)
+                outputs.get(child).addAll(outputs.get(failure.get(child)));
+            }
+        }
+    }
+}
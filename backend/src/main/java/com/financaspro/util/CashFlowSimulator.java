@@ -0,0 +1,308 @@
+package com.financaspro.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo projection of month-end balances. Each month of a scenario adds
+ * the known (scheduled) flow of every account plus the unscheduled flow of one
+ * historical month drawn at random; all accounts take the same historical
+ * month, so flows that moved together keep doing so. Card purchases are paid
+ * by one account: a month's invoice is the larger of what is already on it and
+ * its installments plus the card spending of the drawn month.
+ *
+ * Everything is kept in flat primitive arrays; scenarios run in parallel
+ * chunks and the inner loop allocates nothing. Memory grows with accounts and
+ * scenarios, not with the horizon: no month is kept once summarized.
+ */
+public class CashFlowSimulator {
+
+    private static final int SCENARIOS_PER_CHUNK = 256;
+
+    private final int accounts;
+    private final int months;
+    private final int history;
+
+    private final double[] opening;
+    private final double[] known;       // [account * months + month]
+    private final double[] residual;    // [account * history + historyMonth]
+    private final double[] monthShare;  // part of the month still ahead
+
+    private int cardPayer = -1;
+    private final double[] cardKnown;
+    private final double[] cardInstallments;
+    private final boolean[] cardClosed;
+    private final double[] cardSpending; // per history month
+
+    private final List<Threshold> thresholds = new ArrayList<>();
+
+    public CashFlowSimulator(int accounts, int months, int history) {
+        this.accounts = accounts;
+        this.months = months;
+        this.history = history;
+        opening = new double[accounts];
+        known = new double[accounts * months];
+        residual = new double[accounts * history];
+        monthShare = new double[months];
+        Arrays.fill(monthShare, 1);
+        cardKnown = new double[months];
+        cardInstallments = new double[months];
+        cardClosed = new boolean[months];
+        cardSpending = new double[history];
+    }
+
+    public void setOpening(int account, double balance) {
+        opening[account] = balance;
+    }
+
+    public void addKnown(int account, int month, double flow) {
+        known[account * months + month] += flow;
+    }
+
+    public void addResidual(int account, int historyMonth, double flow) {
+        residual[account * history + historyMonth] += flow;
+    }
+
+    public void setMonthShare(int month, double share) {
+        monthShare[month] = share;
+    }
+
+    public void setCardPayer(int account) {
+        cardPayer = account;
+    }
+
+    // Open invoice total due in the month (everything already charged to it)
+    public void addCardKnown(int month, double amount) {
+        cardKnown[month] += amount;
+    }
+
+    public void addCardInstallments(int month, double amount) {
+        cardInstallments[month] += amount;
+    }
+
+    // The month's invoice is already closed, i.e. a known bank transaction
+    public void setCardClosed(int month) {
+        cardClosed[month] = true;
+    }
+
+    public void addCardSpending(int historyMonth, double amount) {
+        cardSpending[historyMonth] += amount;
+    }
+
+    // Probability of ending the month with at least the amount is counted
+    // during the run, for the (account, month) pairs registered here
+    public void addThreshold(int account, int month, double amount) {
+        thresholds.add(new Threshold(account, month, amount));
+    }
+
+    /**
+     * Runs the scenarios on the executor and keeps the month-end balance
+     * percentiles asked for (0-100) of every account and month. Months are
+     * simulated one at a time for every scenario, so only the current balances
+     * are held: each month's column is summarized before the next is run.
+     */
+    public Result run(ExecutorService executor, int scenarios, long seed, double... percents) {
+        double[] sortedPercents = percents.clone();
+        Arrays.sort(sortedPercents);
+        double[] values = new double[accounts * months * sortedPercents.length];
+        int[] reached = new int[thresholds.size()];
+
+        double[] balances = new double[scenarios * accounts]; // [scenario * accounts + account]
+        for (int s = 0; s < scenarios; s++) {
+            System.arraycopy(opening, 0, balances, s * accounts, accounts);
+        }
+        // One generator per chunk: reproducible for a seed whatever the thread count.
+        // Split, not seeded with seed + chunk * gamma, which would give every
+        // chunk the same stream one step apart
+        int chunks = (scenarios + SCENARIOS_PER_CHUNK - 1) / SCENARIOS_PER_CHUNK;
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            randoms[chunk] = root.split();
+        }
+
+        float[] column = new float[scenarios];
+        List<Callable<Void>> steps = new ArrayList<>(chunks);
+        for (int m = 0; m < months; m++) {
+            int month = m;
+            steps.clear();
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int from = chunk * SCENARIOS_PER_CHUNK;
+                int to = Math.min(scenarios, from + SCENARIOS_PER_CHUNK);
+                SplittableRandom random = randoms[chunk];
+                steps.add(() -> {
+                    advance(balances, month, from, to, random);
+                    return null;
+                });
+            }
+            invokeAll(executor, steps);
+
+            for (int a = 0; a < accounts; a++) {
+                for (int s = 0; s < scenarios; s++) {
+                    column[s] = (float) balances[s * accounts + a];
+                }
+                for (int t = 0; t < reached.length; t++) {
+                    Threshold threshold = thresholds.get(t);
+                    if (threshold.account() == a && threshold.month() == m) {
+                        reached[t] = countAtLeast(column, threshold.amount());
+                    }
+                }
+                // A few order statistics (selection, not a full sort) give the percentiles
+                int start = 0;
+                int offset = (a * months + m) * sortedPercents.length;
+                for (int p = 0; p < sortedPercents.length; p++) {
+                    int k = rank(sortedPercents[p], scenarios);
+                    if (k >= start) {
+                        select(column, start, scenarios, k);
+                        start = k + 1;
+                    }
+                    values[offset + p] = column[k];
+                }
+            }
+        }
+        return new Result(values, sortedPercents, months, thresholds, reached, scenarios);
+    }
+
+    // Moves scenarios [from, to) one month ahead
+    private void advance(double[] balances, int m, int from, int to, SplittableRandom random) {
+        double share = monthShare[m];
+        for (int s = from; s < to; s++) {
+            int base = s * accounts;
+            int drawn = history == 0 ? -1 : random.nextInt(history);
+            for (int a = 0; a < accounts; a++) {
+                double flow = known[a * months + m];
+                if (drawn >= 0) {
+                    flow += residual[a * history + drawn] * share;
+                }
+                balances[base + a] += flow;
+            }
+            if (cardPayer >= 0 && !cardClosed[m]) {
+                double spending = cardInstallments[m] + (drawn >= 0 ? cardSpending[drawn] * share : 0);
+                balances[base + cardPayer] -= Math.max(cardKnown[m], spending);
+            }
+        }
+    }
+
+    private static void invokeAll(ExecutorService executor, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        }
+    }
+
+    private static int countAtLeast(float[] column, double amount) {
+        float threshold = (float) amount;
+        int count = 0;
+        for (float balance : column) {
+            if (balance >= threshold) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Nearest-rank position of a percentile (0-100)
+    private static int rank(double percent, int size) {
+        return Math.max(0, Math.min(size - 1, (int) Math.ceil(percent / 100 * size) - 1));
+    }
+
+    // Moves the k-th smallest of [from, to) to index k, smaller ones before it
+    // and larger ones after (quickselect, median-of-three pivot)
+    private static void select(float[] a, int from, int to, int k) {
+        int low = from;
+        int high = to - 1;
+        while (high > low) {
+            int mid = (low + high) >>> 1;
+            if (a[mid] < a[low]) {
+                swap(a, low, mid);
+            }
+            if (a[high] < a[low]) {
+                swap(a, low, high);
+            }
+            if (a[high] < a[mid]) {
+                swap(a, mid, high);
+            }
+            float pivot = a[mid];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (a[i] < pivot) {
+                    i++;
+                }
+                while (a[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(a, i++, j--);
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(float[] a, int i, int j) {
+        float t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    private record Threshold(int account, int month, double amount) {
+    }
+
+    public static class Result {
+
+        private final double[] values;
+        private final double[] percents;
+        private final int months;
+        private final List<Threshold> thresholds;
+        private final int[] reached;
+        private final int scenarios;
+
+        Result(double[] values, double[] percents, int months, List<Threshold> thresholds, int[] reached,
+                int scenarios) {
+            this.values = values;
+            this.percents = percents;
+            this.months = months;
+            this.thresholds = thresholds;
+            this.reached = reached;
+            this.scenarios = scenarios;
+        }
+
+        // One of the percentiles the run was asked for
+        public double percentile(int account, int month, double percent) {
+            int p = Arrays.binarySearch(percents, percent);
+            if (p < 0) {
+                throw new IllegalArgumentException("Percentile not computed: " + percent);
+            }
+            return values[(account * months + month) * percents.length + p];
+        }
+
+        // Share of scenarios ending the month with at least this balance; one
+        // of the thresholds registered before the run
+        public double probabilityAtLeast(int account, int month, double amount) {
+            int t = thresholds.indexOf(new Threshold(account, month, amount));
+            if (t < 0) {
+                throw new IllegalArgumentException("Threshold not computed: " + amount);
+            }
+            return (double) reached[t] / scenarios;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.financaspro.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps how many requests run at once, in total and per user. Never waits:
+ * a request that doesn't fit is rejected right away instead of holding a
+ * request thread while it queues.
+ */
+public class ConcurrencyLimiter {
+
+    public enum Admission {
+        ADMITTED,
+        // The user already has maxPerUser running
+        USER_LIMIT,
+        // Every slot is taken (by any users)
+        FULL
+    }
+
+    private final Semaphore slots;
+    private final int maxPerUser;
+
+    private final Map<String, Integer> running = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiter(int maxConcurrent, int maxPerUser) {
+        this.slots = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+        this.maxPerUser = maxPerUser;
+    }
+
+    public Admission tryEnter(String userId) {
+        if (maxPerUser > 0) {
+            boolean[] entered = new boolean[1];
+            running.compute(userId, (k, count) -> {
+                int current = count == null ? 0 : count;
+                if (current >= maxPerUser) {
+                    return count;
+                }
+                entered[0] = true;
+                return current + 1;
+            });
+            if (!entered[0]) {
+                return Admission.USER_LIMIT;
+            }
+        }
+        if (slots != null && !slots.tryAcquire()) {
+            leaveUser(userId);
+            return Admission.FULL;
+        }
+        return Admission.ADMITTED;
+    }
+
+    // Once per ADMITTED tryEnter
+    public void exit(String userId) {
+        if (slots != null) {
+            slots.release();
+        }
+        leaveUser(userId);
+    }
+
+    private void leaveUser(String userId) {
+        if (maxPerUser > 0) {
+            running.computeIfPresent(userId, (k, count) -> count <= 1 ? null : count - 1);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.financaspro.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+/**
+ * Helpers for the opt-in optimistic path: a client that sends the version it
+ * last saw (If-Match) gets 412 Precondition Failed instead of overwriting a newer write.
+ */
+public final class EntityVersions {
+
+    private EntityVersions() {
+    }
+
+    // Accepts both ETag-style ("3") and bare (3) values
+    public static Long fromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(ifMatch.replace("W/", "").replace("\"", "").trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match: " + ifMatch);
+        }
+    }
+
+    // The client's If-Match no longer holds; without one it is a plain write conflict
+    public static HttpStatus failureStatus(String ifMatch) {
+        return fromIfMatch(ifMatch) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+    }
+
+    public static void check(Class<?> type, Object id, Long expected, Long current) {
+        if (expected != null && !expected.equals(current)) {
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.financaspro.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One token bucket per key, each a single long updated by compare-and-set
+ * (no locks). The long is the bucket's theoretical arrival time (GCRA): the
+ * instant it would be full again. A request is admitted while that instant
+ * is less than a burst ahead of now, and pushes it one interval further.
+ */
+public class TokenBuckets {
+
+    private final long interval;
+    private final long tolerance;
+
+    private final Map<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+
+    public TokenBuckets(double ratePerSecond, int burst) {
+        interval = (long) (1_000_000_000L / ratePerSecond);
+        tolerance = interval * (Math.max(1, burst) - 1L);
+    }
+
+    /**
+     * Takes a token from the key's bucket. Returns 0 when admitted, otherwise
+     * the nanoseconds until a token is available (nothing is taken then).
+     */
+    public long tryAcquire(String key, long now) {
+        AtomicLong arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now);
+            long wait = next - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    // Full buckets carry no information; a request racing the removal at
+    // worst gets one extra token
+    public void evictFull(long now) {
+        arrivals.values().removeIf(arrival -> arrival.get() <= now);
+    }
+}
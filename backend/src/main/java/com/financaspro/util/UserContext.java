@@ -5,14 +5,21 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 @Component
 public class UserContext {
     public String getCurrentUserId() {
+        return findCurrentUserId().orElseThrow(() -> new RuntimeException("User not authenticated"));
+    }
+
+    // For code that also runs outside requests (scheduled jobs, infrastructure)
+    public Optional<String> findCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof Jwt) {
             Jwt jwt = (Jwt) authentication.getPrincipal();
-            return jwt.getSubject(); // 'sub' claim is the user ID
+            return Optional.ofNullable(jwt.getSubject()); // 'sub' claim is the user ID
         }
-        throw new RuntimeException("User not authenticated");
+        return Optional.empty();
     }
 }
@@ -0,0 +1,116 @@
+package com.financaspro.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Serializes mutations of one user inside this process without touching the
+ * database's isolation level. Users hash onto a fixed set of reentrant locks
+ * (stripes), so memory stays bounded and different users only wait on each
+ * other in the rare case they share a stripe.
+ */
+@Component
+public class UserLockManager {
+
+    @Value("${financaspro.locks.stripes:1024}")
+    private int stripeCount;
+
+    private ReentrantLock[] stripes;
+
+    private final Map<String, PendingUpdate<?, ?>> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        // Power of two so the stripe is a mask of the spread hash
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the user's lock. Must wrap the whole
+     * transaction (not run inside one) so the next writer sees the commit.
+     */
+    public <T> T withLock(String userId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(userId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Like {@link #withLock}, but updates of the same entity that queue up
+     * behind the lock collapse into one write of the newest value. Every
+     * caller whose update was superseded gets that write's result (or error).
+     */
+    @SuppressWarnings("unchecked")
+    public <V, R> R coalesce(String userId, String entityKey, V update, Function<V, R> apply) {
+        String key = userId + '|' + entityKey;
+        PendingUpdate<V, R>[] created = new PendingUpdate[1];
+        PendingUpdate<V, R> slot = (PendingUpdate<V, R>) pending.compute(key, (k, existing) -> {
+            if (existing == null) {
+                created[0] = new PendingUpdate<>(update);
+                return created[0];
+            }
+            ((PendingUpdate<V, R>) existing).value = update;
+            return existing;
+        });
+
+        if (created[0] == null) {
+            return join(slot.result);
+        }
+
+        return withLock(userId, () -> {
+            // Later arrivals start a new slot from here on
+            pending.remove(key, slot);
+            try {
+                R result = apply.apply(slot.value);
+                slot.result.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                slot.result.completeExceptionally(e);
+                throw e;
+            }
+        });
+    }
+
+    private ReentrantLock stripeFor(String userId) {
+        int h = userId.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    private static <R> R join(CompletableFuture<R> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static class PendingUpdate<V, R> {
+        volatile V value;
+        final CompletableFuture<R> result = new CompletableFuture<>();
+
+        PendingUpdate(V value) {
+            this.value = value;
+        }
+    }
+}
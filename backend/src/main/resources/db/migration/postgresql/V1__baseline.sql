@@ -0,0 +1,83 @@
+-- Schema of the last release that ran ddl-auto=update, exactly as Hibernate
+-- created it. Those databases are baselined at this version and only run V2+.
+
+create table account (
+    closing_day integer,
+    due_day integer,
+    initial_balance float(53),
+    is_default boolean,
+    id varchar(255) not null,
+    name varchar(255),
+    type varchar(255) check (type in ('BANK','CREDIT_CARD','INVESTMENT')),
+    user_id varchar(255),
+    primary key (id)
+);
+
+create table budget (
+    amount float(53),
+    month integer,
+    year integer,
+    category_id varchar(255),
+    id varchar(255) not null,
+    user_id varchar(255),
+    primary key (id)
+);
+
+create table category (
+    impacts_budget boolean not null,
+    icon varchar(255),
+    id varchar(255) not null,
+    name varchar(255),
+    subtype varchar(255) check (subtype in ('FIXA','VARIAVEL')),
+    type varchar(255) check (type in ('INCOME','EXPENSE','TRANSFER_OUT','TRANSFER_IN')),
+    user_id varchar(255),
+    primary key (id)
+);
+
+create table financial_goal (
+    target_amount float(53),
+    account_id varchar(255),
+    id varchar(255) not null,
+    target_date varchar(255),
+    user_id varchar(255),
+    primary key (id)
+);
+
+create table transaction (
+    amount float(53),
+    ignore_in_budget boolean,
+    installment_number integer,
+    is_applied boolean,
+    total_installments integer,
+    observations varchar(1000),
+    account_id varchar(255),
+    batch_id varchar(255),
+    category varchar(255),
+    date varchar(255),
+    description varchar(255),
+    fitid varchar(255),
+    id varchar(255) not null,
+    invoice_month varchar(255),
+    related_transaction_id varchar(255),
+    type varchar(255) check (type in ('INCOME','EXPENSE','TRANSFER_OUT','TRANSFER_IN')),
+    user_id varchar(255),
+    primary key (id)
+);
+
+create table transaction_split (
+    amount float(53),
+    category_name varchar(255),
+    transaction_id varchar(255) not null
+);
+
+create table wealth_config (
+    passive_income_goal float(53),
+    id bigserial not null,
+    user_id varchar(255),
+    primary key (id)
+);
+
+alter table if exists transaction_split
+   add constraint FKcdtn8j0j8v3eotf0grdgy4vyb
+   foreign key (transaction_id)
+   references transaction;
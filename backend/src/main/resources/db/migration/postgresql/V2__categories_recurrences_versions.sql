@@ -0,0 +1,52 @@
+-- Schema changes made while the app still ran ddl-auto=update: category codes,
+-- recurring transactions, optimistic-lock versions, budget natural key and the
+-- pending/date indexes. Guarded with "if not exists", since a database may
+-- already have picked some of them up from Hibernate.
+
+alter table account add column if not exists version bigint default 0;
+alter table wealth_config add column if not exists version bigint default 0;
+
+-- Codes are assigned to existing categories at startup (CategoryCodeMigration)
+alter table category add column if not exists code integer;
+alter table transaction add column if not exists category_code integer;
+alter table transaction_split add column if not exists category_code integer;
+
+alter table transaction add column if not exists recurrence_id varchar(255);
+
+create table if not exists recurring_transaction (
+    amount float(53),
+    day_of_month integer,
+    observations varchar(1000),
+    account_id varchar(255),
+    category varchar(255),
+    description varchar(255),
+    end_date varchar(255),
+    id varchar(255) not null,
+    materialized_until varchar(255),
+    start_date varchar(255),
+    type varchar(255) check (type in ('INCOME','EXPENSE','TRANSFER_OUT','TRANSFER_IN')),
+    user_id varchar(255),
+    primary key (id)
+);
+
+-- Budgets were inserted without a key; keep the last row written for each month
+delete from budget b
+using budget newer
+where newer.user_id is not distinct from b.user_id
+  and newer.category_id is not distinct from b.category_id
+  and newer.year is not distinct from b.year
+  and newer.month is not distinct from b.month
+  and newer.ctid > b.ctid;
+
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'uk_budget_category_month') then
+        alter table budget add constraint uk_budget_category_month unique (user_id, category_id, year, month);
+    end if;
+    if not exists (select 1 from pg_constraint where conname = 'uk_category_user_code') then
+        alter table category add constraint uk_category_user_code unique (user_id, code);
+    end if;
+end $$;
+
+create index if not exists idx_transaction_user_pending on transaction (user_id, is_applied, type, date);
+create index if not exists idx_transaction_user_date on transaction (user_id, date);
@@ -0,0 +1,92 @@
+-- Transactions become range-partitioned by year on the ISO date string, so
+-- date-bounded queries only touch their years and every index stays per year.
+-- Primary keys live on each partition (a parent key would have to include the
+-- date); rows with a missing or odd date land in the default partition.
+-- Ids stay unique across years through transaction_key, which also gives the
+-- date of an id so lookups by id only visit its year.
+
+-- Splits are removed by Hibernate before their transaction; a foreign key to a
+-- partitioned table would need the date in the key
+alter table if exists transaction_split drop constraint if exists FKcdtn8j0j8v3eotf0grdgy4vyb;
+
+drop index if exists idx_transaction_user_pending;
+drop index if exists idx_transaction_user_date;
+alter table transaction rename to transaction_unpartitioned;
+
+create table transaction (like transaction_unpartitioned including defaults including constraints)
+    partition by range (date);
+
+do $$
+declare
+    y integer;
+begin
+    for y in
+        select distinct cast(substring(date, 1, 4) as integer) from transaction_unpartitioned
+        where date ~ '^[0-9]{4}-' and date < '9999'
+        union
+        select cast(extract(year from current_date) as integer) + g from generate_series(0, 3) g
+    loop
+        execute format('create table transaction_y%s partition of transaction for values from (%L) to (%L)',
+                y, lpad(y::text, 4, '0') || '-01-01', lpad((y + 1)::text, 4, '0') || '-01-01');
+        execute format('alter table transaction_y%s add primary key (id)', y);
+    end loop;
+end $$;
+
+create table transaction_default partition of transaction default;
+alter table transaction_default add primary key (id);
+
+create index idx_transaction_user_pending on transaction (user_id, is_applied, type, date);
+create index idx_transaction_user_date on transaction (user_id, date);
+
+-- One row per transaction id, kept by trigger: a second row with the same id
+-- in any year fails on this key. The new tables are guarded like V2's, since
+-- a database may already have them from ddl-auto=update.
+create table if not exists transaction_key (
+    id varchar(255) not null,
+    date varchar(255),
+    primary key (id)
+);
+
+-- Rebuilt from the rows copied below
+delete from transaction_key;
+
+create or replace function transaction_key_sync() returns trigger language plpgsql as $$
+begin
+    if tg_op in ('UPDATE', 'DELETE') then
+        delete from transaction_key where id = old.id;
+    end if;
+    if tg_op in ('UPDATE', 'INSERT') then
+        insert into transaction_key (id, date) values (new.id, new.date);
+    end if;
+    return null;
+end $$;
+
+-- A date change across years runs as delete plus insert, firing those two
+drop trigger if exists transaction_key_sync on transaction;
+create trigger transaction_key_sync after insert or delete or update of id, date on transaction
+    for each row execute function transaction_key_sync();
+
+insert into transaction select * from transaction_unpartitioned;
+drop table transaction_unpartitioned;
+
+-- Monthly totals of archived (closed) years, kept hot for balance and budget sums
+create table if not exists transaction_rollup (
+    category_code integer,
+    month integer,
+    total float(53),
+    year integer,
+    id bigserial not null,
+    transaction_count bigint,
+    account_id varchar(255),
+    type varchar(255) check (type in ('INCOME','EXPENSE','TRANSFER_OUT','TRANSFER_IN')),
+    user_id varchar(255),
+    primary key (id)
+);
+
+create index if not exists idx_transaction_rollup_user_month on transaction_rollup (user_id, year, month);
+
+create table if not exists archived_year (
+    year integer not null,
+    archived_at varchar(255),
+    primary key (year)
+);
@@ -0,0 +1,7 @@
+-- Per-user counter for category codes, so a deleted category's code is never
+-- handed out again. Rows are created on first use from the highest code.
+create table if not exists category_code_counter (
+    last_code integer,
+    user_id varchar(255) not null,
+    primary key (user_id)
+);
@@ -0,0 +1,33 @@
+-- One-off encoding of data written before categories were referenced by code
+-- (formerly redone at every startup). A name is matched within the
+-- transaction's type: "Outros" may be both an income and an expense category.
+
+-- Categories without a code get the next ones after the user's highest
+with numbered as (
+    select c.id,
+           coalesce((select max(m.code) from category m where m.user_id = c.user_id), 0)
+               + row_number() over (partition by c.user_id order by c.id) as code
+    from category c
+    where c.code is null
+)
+update category c set code = n.code from numbered n where c.id = n.id;
+
+update category_code_counter k
+set last_code = greatest(k.last_code, (select max(c.code) from category c where c.user_id = k.user_id));
+
+update transaction t
+set category_code = (select min(c.code) from category c
+                     where c.user_id = t.user_id and c.name = t.category and c.type = t.type),
+    category = null
+where t.category_code is null
+  and exists (select 1 from category c where c.user_id = t.user_id and c.name = t.category and c.type = t.type);
+
+update transaction_split s
+set category_code = (select min(c.code) from category c
+                     join transaction t on t.user_id = c.user_id and t.type = c.type
+                     where t.id = s.transaction_id and c.name = s.category_name),
+    category_name = null
+where s.category_code is null
+  and exists (select 1 from category c
+              join transaction t on t.user_id = c.user_id and t.type = c.type
+              where t.id = s.transaction_id and c.name = s.category_name);
@@ -0,0 +1,117 @@
+package com.financaspro.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.financaspro.model.Category;
+import com.financaspro.model.TransactionType;
+import com.financaspro.repository.CategoryRepository;
+import com.financaspro.util.UserContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * The compact formats are opt-in: only an Accept header naming them changes
+ * the response, every other client keeps getting plain JSON.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:wireformats;NON_KEYWORDS=MONTH,YEAR",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "financaspro.search.index-dir=target/test-search-index"
+})
+@AutoConfigureMockMvc(addFilters = false)
+class WireFormatNegotiationTest {
+
+    private static final String USER = "user-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private UserContext userContext;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(userContext.getCurrentUserId()).thenReturn(USER);
+        Mockito.when(userContext.findCurrentUserId()).thenReturn(Optional.of(USER));
+        categoryRepository.deleteAll();
+        categoryRepository.saveAll(List.of(
+                new Category("c1", USER, "Mercado", 1, TransactionType.EXPENSE, null, true, null),
+                new Category("c2", USER, "Salario", 2, TransactionType.INCOME, null, false, null)));
+    }
+
+    @Test
+    void wildcardAndMissingAcceptGetPlainJson() throws Exception {
+        for (String accept : new String[] { null, "*/*", "application/*", "application/*+json" }) {
+            MockHttpServletRequestBuilder request = get("/api/categories");
+            if (accept != null) {
+                request.header(HttpHeaders.ACCEPT, accept);
+            }
+            MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+
+            assertThat(response.getStatus()).as(accept).isEqualTo(200);
+            assertThat(MediaType.parseMediaType(response.getContentType())).as(accept)
+                    .isEqualTo(MediaType.APPLICATION_JSON);
+            JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+            assertThat(body.isArray()).as(accept).isTrue();
+            assertThat(body).hasSize(2);
+            // Plain JSON keeps its nulls
+            assertThat(body.get(0).has("icon")).isTrue();
+        }
+    }
+
+    @Test
+    void columnarTypeReturnsColumns() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/categories")
+                .header(HttpHeaders.ACCEPT, ColumnarJsonHttpMessageConverter.COLUMNAR_JSON.toString()))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(MediaType.parseMediaType(response.getContentType()))
+                .isEqualTo(ColumnarJsonHttpMessageConverter.COLUMNAR_JSON);
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(body.get("count").asInt()).isEqualTo(2);
+        assertThat(body.get("columns").get("name")).hasSize(2);
+        // Null in every row: left out
+        assertThat(body.get("columns").has("icon")).isFalse();
+    }
+
+    @Test
+    void cborTypeReturnsCbor() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/categories")
+                .header(HttpHeaders.ACCEPT, "application/cbor"))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(MediaType.parseMediaType(response.getContentType())).isEqualTo(MediaType.APPLICATION_CBOR);
+        JsonNode body = new ObjectMapper(new CBORFactory()).readTree(response.getContentAsByteArray());
+        assertThat(body.isArray()).isTrue();
+        assertThat(body).hasSize(2);
+        assertThat(body.get(0).has("icon")).isFalse();
+    }
+}
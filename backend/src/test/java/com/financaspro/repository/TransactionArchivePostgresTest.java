@@ -0,0 +1,174 @@
+package com.financaspro.repository;
+
+import com.financaspro.model.Transaction;
+import com.financaspro.model.TransactionType;
+import com.financaspro.service.TransactionArchiveService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The PostgreSQL side of the archive tier: the year partitions and their
+ * transaction_key trigger from V3, moving a year out of the default partition,
+ * the nightly archive job and concurrent rollup rebuilds. Skipped unless
+ * FINANCASPRO_TEST_POSTGRES_URL points at a dedicated database (empty or
+ * already migrated by an earlier run), e.g.
+ * FINANCASPRO_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/financaspro_test mvn test
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${FINANCASPRO_TEST_POSTGRES_URL}",
+        "spring.datasource.username=${FINANCASPRO_TEST_POSTGRES_USERNAME:postgres}",
+        "spring.datasource.password=${FINANCASPRO_TEST_POSTGRES_PASSWORD:password}",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/{vendor}",
+        "financaspro.archive.years-per-run=100",
+        "financaspro.search.index-dir=target/test-search-index"
+})
+@EnabledIfEnvironmentVariable(named = "FINANCASPRO_TEST_POSTGRES_URL", matches = ".+")
+class TransactionArchivePostgresTest {
+
+    // Old enough to be closed by the archive job, and before any partition V3 creates up front
+    private static final int YEAR = 2001;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String user;
+
+    @BeforeEach
+    void setUp() {
+        user = "archive-test-" + UUID.randomUUID();
+        // Archived years are global; start every test with none
+        jdbcTemplate.update("DELETE FROM archived_year");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transaction WHERE user_id = ?", user);
+        jdbcTemplate.update("DELETE FROM transaction_rollup WHERE user_id = ?", user);
+        jdbcTemplate.update("DELETE FROM archived_year");
+    }
+
+    @Test
+    void transactionKeyKeepsIdsUniqueAcrossYearPartitions() {
+        String id = user + "-1";
+        transactionRepository.save(transaction(id, "2026-03-10"));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT date FROM transaction_key WHERE id = ?", String.class, id))
+                .isEqualTo("2026-03-10");
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO transaction (id, user_id, date, amount, type) VALUES (?, ?, '2027-01-05', 1, 'EXPENSE')",
+                id, user)).isInstanceOf(DuplicateKeyException.class);
+
+        // Moving to another year is a delete plus insert across partitions; the key follows
+        jdbcTemplate.update("UPDATE transaction SET date = '2027-01-05' WHERE id = ?", id);
+        assertThat(jdbcTemplate.queryForObject("SELECT date FROM transaction_key WHERE id = ?", String.class, id))
+                .isEqualTo("2027-01-05");
+        assertThat(partitionOf(id)).isEqualTo("transaction_y2027");
+    }
+
+    @Test
+    void archiveJobMovesClosedYearOutOfDefaultPartitionAndRollsItUp() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS transaction_y" + YEAR);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            for (int i = 0; i < 3; i++) {
+                transactions.add(transaction(user + "-" + month + "-" + i, String.format("%d-%02d-1%d", YEAR, month, i)));
+            }
+        }
+        transactionRepository.saveAll(transactions);
+        assertThat(partitionOf(user + "-1-0")).isEqualTo("transaction_default");
+
+        transactionArchiveService.archiveClosedYears();
+
+        assertThat(partitionOf(user + "-1-0")).isEqualTo("transaction_y" + YEAR);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction_key WHERE id LIKE ?",
+                Integer.class, user + "-%")).isEqualTo(36);
+        assertThat(jdbcTemplate.queryForObject("SELECT array_to_string(reloptions, ',') FROM pg_class WHERE relname = ?",
+                String.class, "transaction_y" + YEAR)).contains("fillfactor=100");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM archived_year WHERE year = ?",
+                Integer.class, YEAR)).isEqualTo(1);
+        assertRollups(12, 36 * 10.0);
+    }
+
+    @Test
+    void concurrentRebuildsOfOneYearLeaveOneSetOfRollups() throws Exception {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            transactions.add(transaction(user + "-" + month, String.format("%d-%02d-15", YEAR, month)));
+        }
+        transactionRepository.saveAll(transactions);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> rebuilds = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                // Per-user rebuilds (writes) mixed with everyone's (the archive job)
+                String rebuildUser = i % 4 == 0 ? null : user;
+                rebuilds.add(() -> transactionArchiveRepository.rebuildRollups(YEAR, rebuildUser));
+            }
+            for (Future<Integer> result : executor.invokeAll(rebuilds)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertRollups(12, 12 * 10.0);
+    }
+
+    private void assertRollups(int rows, double total) {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction_rollup WHERE user_id = ? AND year = ?", Integer.class, user, YEAR))
+                .isEqualTo(rows);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(total) FROM transaction_rollup WHERE user_id = ? AND year = ?", Double.class, user, YEAR))
+                .isEqualTo(total);
+    }
+
+    private String partitionOf(String id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM transaction WHERE id = ?",
+                String.class, id);
+    }
+
+    private Transaction transaction(String id, String date) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setUserId(user);
+        t.setDescription("Archive test");
+        t.setAmount(10.0);
+        t.setDate(date);
+        t.setType(TransactionType.EXPENSE);
+        t.setIsApplied(true);
+        t.setAccountId("acc-1");
+        return t;
+    }
+}
@@ -0,0 +1,129 @@
+package com.financaspro.repository;
+
+import com.financaspro.model.Transaction;
+import com.financaspro.model.TransactionSplit;
+import com.financaspro.model.TransactionType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing transactions must not load splits one transaction at a time: the
+ * statement count stays flat however many transactions there are.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transactions;NON_KEYWORDS=MONTH,YEAR",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TransactionArchiveRepository.class)
+class TransactionRepositoryTest {
+
+    private static final int TRANSACTIONS = 10_000;
+
+    private static final String USER = "user-1";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Transaction t = new Transaction();
+            t.setId("t" + i);
+            t.setUserId(USER);
+            t.setDescription("Transaction " + i);
+            t.setAmount(10.0);
+            t.setDate(start.plusDays(i % 365).toString());
+            t.setType(TransactionType.EXPENSE);
+            t.setIsApplied(i % 2 == 0);
+            t.setSplit(new ArrayList<>(List.of(split(6.0), split(4.0))));
+            entityManager.persist(t);
+            if (i % 1000 == 999) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingAllLoadsSplitsInTheSameStatement() {
+        List<Transaction> transactions = transactionRepository.findAllByUserId(USER);
+
+        assertThat(transactions).hasSize(TRANSACTIONS);
+        assertThat(transactions).allSatisfy(t -> assertThat(t.getSplit()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listingByDateRangeLoadsSplitsInTheSameStatement() {
+        List<Transaction> transactions = transactionRepository.findAllByUserIdAndDateBetween(USER, "2024-01-01",
+                "2024-12-31");
+
+        assertThat(transactions).hasSize(TRANSACTIONS);
+        assertThat(transactions).allSatisfy(t -> assertThat(t.getSplit()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listingPendingLoadsSplitsInTheSameStatement() {
+        List<Transaction> transactions = transactionRepository.findPendingByUserIdAndTypeUntil(USER,
+                TransactionType.EXPENSE, "2024-12-31");
+
+        assertThat(transactions).hasSize(TRANSACTIONS / 2);
+        assertThat(transactions).allSatisfy(t -> assertThat(t.getSplit()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadingByIdBatchesSplits() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            ids.add("t" + i);
+        }
+
+        List<Transaction> transactions = transactionRepository.findAllById(ids);
+        transactions.forEach(t -> assertThat(t.getSplit()).hasSize(2));
+
+        // One for the transactions, then one per 100 of them for their splits
+        assertThat(transactions).hasSize(250);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    private static TransactionSplit split(double amount) {
+        TransactionSplit split = new TransactionSplit();
+        split.setAmount(amount);
+        return split;
+    }
+}
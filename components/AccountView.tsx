@@ -2,6 +2,7 @@
 import React, { useState, useEffect } from 'react';
 import { PlusCircle, Wallet, Edit2, Trash2, ArrowRightLeft, CheckCircle2, AlertTriangle, Save, CreditCard, TrendingUp, Star, ShieldCheck, Wifi } from 'lucide-react';
 import { Account, Transaction, TransactionType, AccountType } from '../types';
+import { calendarService } from '../services/api';
 
 interface AccountViewProps {
   accounts: Account[];
@@ -86,19 +87,25 @@ const AccountView: React.FC<AccountViewProps> = ({
   };
 
   // --- Calc Logic ---
+  // Cleared balances (applied transactions only) come from /api/calendar, one request per account
+  const [clearedBalances, setClearedBalances] = useState<Record<string, number>>({});
+
+  useEffect(() => {
+    const now = new Date();
+    const month = `${now.getFullYear()}-${String(now.getMonth() + 1).padStart(2, '0')}`;
+    let cancelled = false;
+    Promise.all(accounts
+      .filter(a => a.type !== AccountType.CREDIT_CARD)
+      .map(a => calendarService.getMonth(month, a.id).then(calendar => [a.id, calendar.clearedBalance ?? a.initialBalance] as const)))
+      .then(entries => { if (!cancelled) setClearedBalances(Object.fromEntries(entries)); })
+      .catch(error => console.error("Failed to load account balances", error));
+    return () => { cancelled = true; };
+  }, [accounts, transactions]);
+
   const calculateCurrentBalance = (account: Account) => {
     // Only applies for BANK and INVESTMENT accounts
     if (account.type === AccountType.CREDIT_CARD) return 0;
-
-    const accountTransactions = transactions.filter(t => t.accountId === account.id && t.isApplied);
-    const totalIncome = accountTransactions
-      .filter(t => t.type === TransactionType.INCOME)
-      .reduce((acc, t) => acc + t.amount, 0);
-    const totalExpense = accountTransactions
-      .filter(t => t.type === TransactionType.EXPENSE)
-      .reduce((acc, t) => acc + t.amount, 0);
-
-    return account.initialBalance + totalIncome - totalExpense;
+    return clearedBalances[account.id] ?? account.initialBalance;
   };
 
   const totalAllAccounts = accounts
@@ -1,7 +1,8 @@
 
-import React, { useState, useMemo } from 'react';
+import React, { useState, useEffect } from 'react';
 import { ChevronLeft, ChevronRight, X, ArrowUpCircle, ArrowDownCircle, Wallet, Calendar as CalendarIcon, CheckCircle2, Clock, Trash2 } from 'lucide-react';
-import { Transaction, Account, TransactionType, AccountType } from '../types';
+import { Transaction, Account, TransactionType, AccountType, InvoiceDue } from '../types';
+import { calendarService } from '../services/api';
 
 interface FinancialCalendarProps {
   transactions: Transaction[];
@@ -11,6 +12,17 @@ interface FinancialCalendarProps {
   onEditTransaction: (t: Transaction) => void;
 }
 
+interface CalendarDayView {
+  day: number;
+  dateStr: string;
+  startBalance: number;
+  income: number;
+  expense: number;
+  endBalance: number;
+  transactions: Transaction[];
+  invoices: InvoiceDue[];
+}
+
 const FinancialCalendar: React.FC<FinancialCalendarProps> = ({ transactions, accounts, onToggleTransactionStatus, onDeleteTransaction, onEditTransaction }) => {
   const [currentDate, setCurrentDate] = useState(new Date());
   const [selectedAccountId, setSelectedAccountId] = useState<string>('');
@@ -31,93 +43,32 @@ const FinancialCalendar: React.FC<FinancialCalendarProps> = ({ transactions, acc
     setCurrentDate(newDate);
   };
 
-  // --- CALCULATION ENGINE ---
-
-  const calendarData = useMemo(() => {
-    const year = currentDate.getFullYear();
-    const month = currentDate.getMonth();
-
-    // Helper: Is this account a credit card?
-    const isCreditCard = (accId: string) => {
-      const acc = accounts.find(a => a.id === accId);
-      return acc?.type === AccountType.CREDIT_CARD;
-    };
-
-    // 1. Determine Initial Balance (Start of Time -> Start of Current Month)
-    let initialBalance = 0;
-
-    // A. Sum Initial Balances of Accounts (Only BANK accounts contribute to cash flow balance)
-    if (selectedAccountId) {
-      const acc = accounts.find(a => a.id === selectedAccountId);
-      initialBalance = (acc && acc.type === AccountType.BANK) ? acc.initialBalance : 0;
-    } else {
-      initialBalance = accounts
-        .filter(acc => acc.type === AccountType.BANK)
-        .reduce((sum, acc) => sum + acc.initialBalance, 0);
-    }
-
-    // B. Process all transactions BEFORE this month
-    const firstDayOfCurrentMonthStr = new Date(year, month, 1).toISOString().split('T')[0];
-
-    transactions.forEach(t => {
-      // Filter logic:
-      // 1. If filtering by specific account, match it.
-      if (selectedAccountId && t.accountId !== selectedAccountId) return;
-
-      // 2. IMPORTANT: If filtering global (no account selected), IGNORE Credit Card purchase transactions.
-      // We only want actual money movements (Bank transactions).
-      // If a transaction has an invoiceMonth, it is likely a CC purchase (unless it's the payment itself, which usually doesn't have invoiceMonth set the same way or is manually handled).
-      // Ideally, we check the account type of the transaction.
-      if (!selectedAccountId && t.accountId && isCreditCard(t.accountId)) return;
-
-      if (t.date < firstDayOfCurrentMonthStr) {
-        if (t.type === TransactionType.INCOME) initialBalance += t.amount;
-        else initialBalance -= t.amount;
-      }
-    });
-
-    // 2. Build Daily Data for Current Month
-    const daysInMonth = new Date(year, month + 1, 0).getDate();
-    const days = [];
-    let runningBalance = initialBalance;
-
-    for (let day = 1; day <= daysInMonth; day++) {
-      const dateStr = new Date(year, month, day).toISOString().split('T')[0]; // Format YYYY-MM-DD
-
-      // Find transactions for this day
-      const daysTransactions = transactions.filter(t => {
-        if (selectedAccountId && t.accountId !== selectedAccountId) return false;
-        // Exclude CC transactions from Global Flow
-        if (!selectedAccountId && t.accountId && isCreditCard(t.accountId)) return false;
-
-        return t.date === dateStr;
-      });
-
-      const dayIncome = daysTransactions
-        .filter(t => t.type === TransactionType.INCOME)
-        .reduce((sum, t) => sum + t.amount, 0);
-
-      const dayExpense = daysTransactions
-        .filter(t => t.type === TransactionType.EXPENSE)
-        .reduce((sum, t) => sum + t.amount, 0);
-
-      const endBalance = runningBalance + dayIncome - dayExpense;
-
-      days.push({
-        day,
-        dateStr,
-        startBalance: runningBalance,
-        income: dayIncome,
-        expense: dayExpense,
-        endBalance,
-        transactions: daysTransactions
-      });
-
-      runningBalance = endBalance;
-    }
-
-    return days;
-  }, [currentDate, transactions, accounts, selectedAccountId]);
+  // --- CALENDAR DATA (server: /api/calendar) ---
+
+  const [calendarData, setCalendarData] = useState<CalendarDayView[]>([]);
+
+  useEffect(() => {
+    const month = `${currentDate.getFullYear()}-${String(currentDate.getMonth() + 1).padStart(2, '0')}`;
+    let cancelled = false;
+    calendarService.getMonth(month, selectedAccountId || undefined)
+      .then(calendar => {
+        if (cancelled) return;
+        setCalendarData(calendar.days.map(d => ({
+          day: Number(d.date.slice(8, 10)),
+          dateStr: d.date,
+          startBalance: d.startBalance,
+          income: d.income,
+          // Globally, invoices due this day leave the bank; a card viewed alone already shows its purchases
+          expense: d.expense + (calendar.accountId ? 0 : d.invoiceDue),
+          endBalance: d.endBalance,
+          transactions: d.transactions,
+          invoices: d.invoices
+        })));
+      })
+      .catch(error => console.error("Failed to load calendar", error));
+    return () => { cancelled = true; };
+    // transactions: refetch after any edit made from this or another view
+  }, [currentDate, selectedAccountId, transactions]);
 
   // Calendar Grid Logic
   const firstDayOfWeek = new Date(currentDate.getFullYear(), currentDate.getMonth(), 1).getDay(); // 0 (Sun) - 6 (Sat)
@@ -272,8 +223,8 @@ const FinancialCalendar: React.FC<FinancialCalendarProps> = ({ transactions, acc
                   </div>
                   <div>
                     <p className="text-[10px] text-slate-500 dark:text-slate-400 uppercase font-bold">Movimento</p>
-                    <p className={`text-sm font-semibold ${(dayData.income - dayData.expense) >= 0 ? 'text-emerald-600 dark:text-emerald-400' : 'text-rose-600 dark:text-rose-400'}`}>
-                      {(dayData.income - dayData.expense).toLocaleString('pt-BR', { style: 'currency', currency: 'BRL' })}
+                    <p className={`text-sm font-semibold ${(dayData.endBalance - dayData.startBalance) >= 0 ? 'text-emerald-600 dark:text-emerald-400' : 'text-rose-600 dark:text-rose-400'}`}>
+                      {(dayData.endBalance - dayData.startBalance).toLocaleString('pt-BR', { style: 'currency', currency: 'BRL' })}
                     </p>
                   </div>
                   <div>
@@ -284,6 +235,25 @@ const FinancialCalendar: React.FC<FinancialCalendarProps> = ({ transactions, acc
                   </div>
                 </div>
 
+                {dayData.invoices.length > 0 && (
+                  <>
+                    <h4 className="text-xs font-bold text-slate-500 dark:text-slate-400 uppercase tracking-wider mb-2">Faturas</h4>
+                    <div className="space-y-2 mb-4">
+                      {dayData.invoices.map(invoice => (
+                        <div key={`${invoice.accountId}-${invoice.invoiceMonth}`} className="flex items-center justify-between p-2 border border-slate-100 dark:border-slate-700 rounded">
+                          <div>
+                            <p className="text-sm font-medium text-slate-800 dark:text-slate-100">Fatura {invoice.accountName} - {invoice.invoiceMonth}</p>
+                            {invoice.overdue && <p className="text-xs text-rose-500">Vencida</p>}
+                          </div>
+                          <p className="text-sm font-bold text-rose-600 dark:text-rose-400">
+                            {invoice.amount.toLocaleString('pt-BR', { style: 'currency', currency: 'BRL' })}
+                          </p>
+                        </div>
+                      ))}
+                    </div>
+                  </>
+                )}
+
                 <h4 className="text-xs font-bold text-slate-500 dark:text-slate-400 uppercase tracking-wider mb-2">Transações</h4>
                 {dayData.transactions.length === 0 ? (
                   <p className="text-center text-slate-400 dark:text-slate-500 text-sm py-4">Nenhuma movimentação neste dia.</p>
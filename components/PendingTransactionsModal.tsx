@@ -1,32 +1,24 @@
 import React from 'react';
-import { Transaction, TransactionType } from '../types';
-import { X, AlertCircle, Calendar, ArrowRight } from 'lucide-react';
+import { PendingNotifications } from '../types';
+import { X, AlertCircle, Calendar, ArrowRight, CreditCard } from 'lucide-react';
 
 interface PendingTransactionsModalProps {
     isOpen: boolean;
     onClose: () => void;
-    transactions: Transaction[];
+    pending: PendingNotifications | null;
     onGoToTransactions: () => void;
 }
 
 const PendingTransactionsModal: React.FC<PendingTransactionsModalProps> = ({
     isOpen,
     onClose,
-    transactions,
+    pending,
     onGoToTransactions
 }) => {
-    if (!isOpen) return null;
+    if (!isOpen || !pending) return null;
 
-    const overdue = transactions.filter(t => {
-        const tDate = new Date(t.date);
-        const today = new Date();
-        today.setHours(0, 0, 0, 0);
-        // Fix timezone issue
-        const tDateLocal = new Date(tDate.getUTCFullYear(), tDate.getUTCMonth(), tDate.getUTCDate());
-        return tDateLocal < today;
-    });
-
-    const upcoming = transactions.filter(t => !overdue.includes(t));
+    // Already split into overdue/upcoming by the server
+    const { overdue, upcoming, invoices } = pending;
 
     return (
         <div className="fixed inset-0 z-50 flex items-center justify-center p-4 bg-slate-900/60 backdrop-blur-sm">
@@ -99,7 +91,31 @@ const PendingTransactionsModal: React.FC<PendingTransactionsModalProps> = ({
                         </div>
                     )}
 
-                    {overdue.length === 0 && upcoming.length === 0 && (
+                    {invoices.length > 0 && (
+                        <div>
+                            <h4 className="text-sm font-bold text-indigo-600 dark:text-indigo-400 uppercase tracking-wide mb-3 flex items-center gap-2">
+                                <CreditCard size={16} />
+                                Faturas em Aberto ({invoices.length})
+                            </h4>
+                            <div className="space-y-2">
+                                {invoices.map(invoice => (
+                                    <div key={`${invoice.accountId}-${invoice.invoiceMonth}`} className={`flex justify-between items-center p-3 border rounded-lg ${invoice.overdue ? 'bg-rose-50 dark:bg-rose-900/10 border-rose-100 dark:border-rose-900/30' : 'bg-indigo-50 dark:bg-indigo-900/10 border-indigo-100 dark:border-indigo-900/30'}`}>
+                                        <div>
+                                            <p className="font-semibold text-slate-800 dark:text-slate-200">Fatura {invoice.accountName} ({invoice.invoiceMonth})</p>
+                                            <p className={`text-xs font-medium ${invoice.overdue ? 'text-rose-600 dark:text-rose-400' : 'text-slate-500 dark:text-slate-400'}`}>
+                                                {invoice.overdue ? 'Venceu em' : 'Vence em'}: {new Date(invoice.dueDate).toLocaleDateString('pt-BR', { timeZone: 'UTC' })}
+                                            </p>
+                                        </div>
+                                        <span className={`font-bold ${invoice.overdue ? 'text-rose-700 dark:text-rose-400' : 'text-slate-700 dark:text-slate-300'}`}>
+                                            {invoice.amount.toLocaleString('pt-BR', { style: 'currency', currency: 'BRL' })}
+                                        </span>
+                                    </div>
+                                ))}
+                            </div>
+                        </div>
+                    )}
+
+                    {overdue.length === 0 && upcoming.length === 0 && invoices.length === 0 && (
                         <p className="text-center text-slate-500 py-4">Nenhuma conta pendente encontrada.</p>
                     )}
 
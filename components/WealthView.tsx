@@ -1,7 +1,8 @@
 
-import React, { useState, useMemo } from 'react';
-import { Account, Transaction, Category, FinancialGoal, WealthConfig, TransactionType, AccountType, CategorySubtype } from '../types';
-import { Target, TrendingUp, DollarSign, Calendar, Save, Trash2, Milestone, Percent, AlertCircle, TrendingDown, Activity } from 'lucide-react';
+import React, { useState, useMemo, useEffect } from 'react';
+import { Account, Transaction, Category, FinancialGoal, WealthConfig, TransactionType, AccountType, CategorySubtype, GoalForecast } from '../types';
+import { goalService } from '../services/api';
+import { Target, TrendingUp, DollarSign, Calendar, Save, Trash2, Milestone, Percent, AlertCircle, TrendingDown, Activity, RefreshCw } from 'lucide-react';
 
 interface WealthViewProps {
    accounts: Account[];
@@ -26,6 +27,20 @@ const WealthView: React.FC<WealthViewProps> = ({
 }) => {
    const [editingGoal, setEditingGoal] = useState<Partial<FinancialGoal>>({});
    const [passiveIncomeTargetInput, setPassiveIncomeTargetInput] = useState(wealthConfig.passiveIncomeGoal.toString());
+   const [goalForecasts, setGoalForecasts] = useState<Record<string, GoalForecast>>({});
+   const [forecastRequest, setForecastRequest] = useState(0);
+   const [isForecasting, setIsForecasting] = useState(false);
+
+   // Simulated on the server from history and scheduled items: a heavy call,
+   // so only when goals change or on request, not on every transaction edit
+   useEffect(() => {
+      if (goals.length === 0) return;
+      setIsForecasting(true);
+      goalService.getForecast()
+         .then(forecast => setGoalForecasts(Object.fromEntries(forecast.goals.map(g => [g.goalId, g]))))
+         .catch(error => console.error("Failed to load goal forecast", error))
+         .finally(() => setIsForecasting(false));
+   }, [goals, forecastRequest]);
 
    // --- HELPER: TIME SPAN ---
    const monthSpan = useMemo(() => {
@@ -254,6 +269,16 @@ const WealthView: React.FC<WealthViewProps> = ({
             <h3 className="font-bold text-slate-800 mb-6 flex items-center gap-2">
                <Target className="text-blue-600" size={24} />
                Metas de Patrimônio
+               {goals.length > 0 && (
+                  <button
+                     onClick={() => setForecastRequest(r => r + 1)}
+                     disabled={isForecasting}
+                     title="Recalcular probabilidades"
+                     className="ml-auto text-slate-400 hover:text-blue-600 disabled:opacity-50"
+                  >
+                     <RefreshCw size={16} className={isForecasting ? 'animate-spin' : ''} />
+                  </button>
+               )}
             </h3>
 
             {/* Goals List */}
@@ -264,6 +289,7 @@ const WealthView: React.FC<WealthViewProps> = ({
                   const growth = calculateAverageGrowth(goal.accountId);
                   const progress = Math.min((current / goal.targetAmount) * 100, 100);
                   const daysLeft = getDaysRemaining(goal.targetDate);
+                  const probability = goalForecasts[goal.id]?.probability;
 
                   return (
                      <div key={goal.id} className="border border-slate-200 rounded-lg p-4 hover:shadow-md transition-shadow bg-slate-50/50">
@@ -298,7 +324,14 @@ const WealthView: React.FC<WealthViewProps> = ({
                               {progress >= 100 ? (
                                  <span className="text-emerald-600 font-bold flex items-center justify-end gap-1"><Target size={12} /> Atingida!</span>
                               ) : (
-                                 <span className="text-slate-500">{daysLeft} dias restantes</span>
+                                 <>
+                                    <span className="text-slate-500">{daysLeft} dias restantes</span>
+                                    {probability !== undefined && probability !== null && (
+                                       <span className={`block font-semibold ${probability >= 0.7 ? 'text-emerald-600' : probability >= 0.4 ? 'text-amber-600' : 'text-rose-600'}`}>
+                                          {Math.round(probability * 100)}% de chance
+                                       </span>
+                                    )}
+                                 </>
                               )}
                            </div>
                         </div>
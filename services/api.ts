@@ -1,6 +1,6 @@
 /// <reference types="vite/client" />
 import axios from 'axios';
-import { Transaction, Category, Account, Budget, FinancialGoal, WealthConfig } from '../types';
+import { Transaction, Category, Account, Budget, FinancialGoal, WealthConfig, DuplicateMatch, RecurringTransaction, PendingNotifications, CashFlowCalendar, CashFlowForecast } from '../types';
 
 const API_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
 
@@ -19,13 +19,67 @@ api.interceptors.request.use(config => {
     return config;
 });
 
+// Throttled (429) or busy (503): idempotent calls wait as told and retry. A
+// rejection by admission control never reached the handler, so any method
+// (imports and restores are POSTs) can be retried
+const RETRYABLE_METHODS = ['get', 'put', 'patch', 'delete'];
+
+api.interceptors.response.use(undefined, async error => {
+    const config = error.config;
+    const status = error.response?.status;
+    const retryAfter = Number(error.response?.headers?.['retry-after']);
+    const admissionRejected = error.response?.headers?.['x-admission-rejected'] === 'true';
+    const retries = config?._retries ?? 0;
+    if (config && (status === 429 || status === 503) && retryAfter > 0 && retryAfter <= 10
+        && (admissionRejected || RETRYABLE_METHODS.includes(config.method)) && retries < 2) {
+        config._retries = retries + 1;
+        await new Promise(resolve => setTimeout(resolve, retryAfter * 1000));
+        return api(config);
+    }
+    return Promise.reject(error);
+});
+
+// Lists can be requested column by column: field names sent once, all-null fields left out
+const COLUMNAR_JSON = 'application/vnd.financaspro.columnar+json';
+
+interface ColumnarResponse {
+    count: number;
+    columns: Record<string, any[]>;
+}
+
+const fromColumnar = (data: ColumnarResponse): any[] => {
+    const rows = Array.from({ length: data.count }, () => ({} as Record<string, any>));
+    for (const [field, values] of Object.entries(data.columns)) {
+        values.forEach((value, i) => {
+            if (value !== null) rows[i][field] = value;
+        });
+    }
+    return rows;
+};
+
 export const transactionService = {
     getAll: async (startDate?: string, endDate?: string) => {
         const params = new URLSearchParams();
         if (startDate) params.append('startDate', startDate);
         if (endDate) params.append('endDate', endDate);
 
-        const response = await api.get<any[]>(`/transactions?${params.toString()}`);
+        const response = await api.get<ColumnarResponse>(`/transactions?${params.toString()}`, {
+            headers: { Accept: COLUMNAR_JSON }
+        });
+        return fromColumnar(response.data).map(t => ({
+            ...t,
+            isApplied: t.isApplied ?? t.applied
+        })) as Transaction[];
+    },
+    getPending: async (days: number) => {
+        const response = await api.get<any[]>('/transactions/pending', { params: { days } });
+        return response.data.map(t => ({
+            ...t,
+            isApplied: t.isApplied ?? t.applied
+        })) as Transaction[];
+    },
+    search: async (query: string, limit = 50) => {
+        const response = await api.get<any[]>('/transactions/search', { params: { q: query, limit } });
         return response.data.map(t => ({
             ...t,
             isApplied: t.isApplied ?? t.applied
@@ -39,6 +93,18 @@ export const transactionService = {
         const response = await api.post<Transaction[]>('/transactions/batch', transactions);
         return response.data;
     },
+    categorize: async (transactions: Transaction[]) => {
+        const response = await api.post<Transaction[]>('/transactions/categorize', transactions);
+        return response.data;
+    },
+    checkDuplicates: async (candidates: Transaction[]) => {
+        const response = await api.post<DuplicateMatch[]>('/transactions/duplicates/check', candidates);
+        return response.data;
+    },
+    findDuplicates: async () => {
+        const response = await api.get<DuplicateMatch[]>('/transactions/duplicates');
+        return response.data;
+    },
     update: async (transaction: Transaction) => {
         const response = await api.put<Transaction>(`/transactions/${transaction.id}`, transaction);
         return response.data;
@@ -47,6 +113,12 @@ export const transactionService = {
         const response = await api.put<Transaction[]>('/transactions/batch', transactions);
         return response.data;
     },
+    // Sets the same fields on every id; fields left out stay unchanged
+    updateFields: async (ids: string[], fields: Partial<Pick<Transaction,
+        'isApplied' | 'ignoreInBudget' | 'category' | 'accountId' | 'invoiceMonth' | 'observations'>>) => {
+        const response = await api.patch<{ updated: number }>('/transactions/bulk', { ids, ...fields });
+        return response.data.updated;
+    },
     delete: async (id: string) => {
         await api.delete(`/transactions/${id}`);
     },
@@ -112,6 +184,10 @@ export const budgetService = {
         const response = await api.post<Budget[]>('/budgets/batch', budgets);
         return response.data;
     },
+    generate: async (year: number, categoryIds?: string[], preview = false) => {
+        const response = await api.post<Budget[]>('/budgets/generate', { year, categoryIds, preview });
+        return response.data;
+    },
     update: async (budget: Budget) => {
         const response = await api.put<Budget>(`/budgets/${budget.id}`, budget);
         return response.data;
@@ -136,6 +212,42 @@ export const goalService = {
     },
     delete: async (id: string) => {
         await api.delete(`/goals/${id}`);
+    },
+    getForecast: async (scenarios?: number) => {
+        const response = await api.get<CashFlowForecast>('/goals/forecast', { params: { scenarios } });
+        return response.data;
+    }
+};
+
+export const recurringService = {
+    getAll: async () => {
+        const response = await api.get<RecurringTransaction[]>('/recurring');
+        return response.data;
+    },
+    create: async (recurring: RecurringTransaction) => {
+        const response = await api.post<RecurringTransaction>('/recurring', recurring);
+        return response.data;
+    },
+    update: async (recurring: RecurringTransaction) => {
+        const response = await api.put<RecurringTransaction>(`/recurring/${recurring.id}`, recurring);
+        return response.data;
+    },
+    delete: async (id: string) => {
+        await api.delete(`/recurring/${id}`);
+    }
+};
+
+export const notificationService = {
+    getPending: async (days: number) => {
+        const response = await api.get<PendingNotifications>('/notifications/pending', { params: { days } });
+        return response.data;
+    }
+};
+
+export const calendarService = {
+    getMonth: async (month: string, accountId?: string) => {
+        const response = await api.get<CashFlowCalendar>('/calendar', { params: { month, accountId } });
+        return response.data;
     }
 };
 
@@ -69,6 +69,100 @@ export interface Transaction {
 
   // Transfer Linking
   relatedTransactionId?: string;
+
+  // Occurrence of a RecurringTransaction
+  recurrenceId?: string;
+}
+
+export interface RecurringTransaction {
+  id: string;
+  description: string;
+  amount: number;
+  category: string;
+  type: TransactionType;
+  accountId?: string;
+  observations?: string;
+  dayOfMonth: number; // Clamped to the month's last day
+  startDate: string; // YYYY-MM-DD
+  endDate?: string; // YYYY-MM-DD, open-ended when absent
+  materializedUntil?: string; // Read-only
+}
+
+export interface DuplicateMatch {
+  transactionId: string;
+  duplicateOfId: string;
+  similarity: number; // 0-1, 1 for same FITID
+  reason: 'FITID' | 'FINGERPRINT';
+  candidateIndex?: number; // Position in the checked batch (candidates may have no id yet)
+  duplicateOfIndex?: number; // Set when the duplicate is an earlier candidate of the same batch
+}
+
+export interface InvoiceDue {
+  accountId: string;
+  accountName: string;
+  invoiceMonth: string; // MM/YYYY
+  dueDate: string; // YYYY-MM-DD
+  amount: number;
+  overdue: boolean;
+}
+
+export interface PendingNotifications {
+  overdue: Transaction[];
+  upcoming: Transaction[];
+  invoices: InvoiceDue[];
+}
+
+export interface CalendarDay {
+  date: string; // YYYY-MM-DD
+  income: number;
+  expense: number;
+  transfers: number; // Net of transfers in/out
+  invoiceDue: number; // Open credit card invoices due this day
+  startBalance: number;
+  endBalance: number;
+  transactions: Transaction[];
+  invoices: InvoiceDue[];
+}
+
+export interface CashFlowCalendar {
+  month: string; // YYYY-MM
+  accountId?: string;
+  openingBalance: number;
+  days: CalendarDay[];
+  clearedBalance?: number; // accountId only: applied transactions to date
+}
+
+export interface BalanceBand {
+  month: string; // YYYY-MM
+  p10: number;
+  p25: number;
+  p50: number;
+  p75: number;
+  p90: number;
+}
+
+export interface AccountForecast {
+  accountId: string;
+  accountName: string;
+  currentBalance: number;
+  bands: BalanceBand[];
+}
+
+export interface GoalForecast {
+  goalId: string;
+  accountId: string;
+  targetAmount: number;
+  targetDate: string;
+  probability?: number; // 0-1; absent when the account is not forecast
+  balance?: BalanceBand; // at the end of the target month
+}
+
+export interface CashFlowForecast {
+  date: string; // forecast start
+  scenarios: number;
+  historyMonths: number;
+  accounts: AccountForecast[];
+  goals: GoalForecast[];
 }
 
 export interface Budget {